@@ -0,0 +1,62 @@
+package benchmarks;
+
+import enums.Browsers;
+import helpers.Navigator;
+import org.openqa.selenium.WebDriver;
+import pages.LoginPage;
+import testBase.BrowserFactory;
+import testBase.DriverFactory;
+import testBase.LocalAppServer;
+
+import java.net.MalformedURLException;
+
+/**
+ * BenchmarkSupport class - shared setup of the benchmarks: creates headless drivers for the
+ * browser given with -Dbrowser (default Chrome) and opens the login page served by the
+ * {@link LocalAppServer}, so no benchmark touches the network.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+final class BenchmarkSupport {
+
+    // Private constructor to prevent instantiation
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Gets the browser to benchmark from -Dbrowser.
+     *
+     * @return The browser type.
+     */
+    static Browsers getBrowser() {
+        return BrowserFactory.getBrowser(System.getProperty("browser", "chrome"));
+    }
+
+    /**
+     * Creates a driver and sets it for the current thread, as TestBase does without pooling.
+     *
+     * @return The driver.
+     * @throws MalformedURLException If an error occurs while creating the browser instance.
+     */
+    static WebDriver createDriver() throws MalformedURLException {
+        WebDriver driver = new BrowserFactory().createBrowserInstance(getBrowser());
+        DriverFactory.getInstance().setDriver(driver);
+        return driver;
+    }
+
+    /**
+     * Opens the local login page and waits until it is ready.
+     *
+     * @param driver The driver.
+     */
+    static void openLoginPage(WebDriver driver) {
+        Navigator.navigateTo(driver, LocalAppServer.getInstance().getBaseUrl(), LoginPage.readiness());
+    }
+
+    /**
+     * Quits the driver of the current thread.
+     */
+    static void closeDriver() {
+        DriverFactory.getInstance().closeDriver();
+    }
+}
@@ -0,0 +1,51 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+import testBase.BrowserFactory;
+
+import java.net.MalformedURLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DriverCreationBenchmark class - measures how long BrowserFactory takes to create a headless
+ * driver, including driver binary resolution, the browser launch and the request interception setup.
+ * Every invocation launches a new browser, so each one is measured as a single shot.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Dprofile=Lean", "-Dpool=false"})
+public class DriverCreationBenchmark {
+
+    private final BrowserFactory browserFactory = new BrowserFactory();
+    private WebDriver driver;
+
+    @Benchmark
+    public WebDriver createBrowserInstance() throws MalformedURLException {
+        driver = browserFactory.createBrowserInstance(BenchmarkSupport.getBrowser());
+        return driver;
+    }
+
+    @TearDown(Level.Invocation)
+    public void quitDriver() {
+        if (driver != null) {
+            driver.quit();
+            driver = null;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+import testBase.DriverFactory;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DriverFactoryBenchmark class - measures the DriverFactory ThreadLocal get and set while several
+ * threads use the singleton at once. The drivers are stubs, so no browser is involved.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class DriverFactoryBenchmark {
+
+    private final DriverFactory driverFactory = DriverFactory.getInstance();
+    private final WebDriver driver = (WebDriver) Proxy.newProxyInstance(WebDriver.class.getClassLoader(),
+            new Class<?>[]{WebDriver.class}, (proxy, method, args) -> null);
+
+    @Setup
+    public void setDriver() {
+        driverFactory.setDriver(driver);
+    }
+
+    @TearDown
+    public void closeDriver() {
+        driverFactory.closeDriver();
+    }
+
+    @Benchmark
+    public WebDriver getDriver() {
+        return driverFactory.getDriver();
+    }
+
+    @Benchmark
+    public WebDriver closeAndSetDriver() {
+        driverFactory.closeDriver();
+        driverFactory.setDriver(driver);
+        return driverFactory.getDriver();
+    }
+}
@@ -0,0 +1,88 @@
+package benchmarks;
+
+import enums.Locators;
+import helpers.GetElements;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebElement;
+import pages.LoginPage;
+
+import java.net.MalformedURLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GetElementsBenchmark class - measures GetElements.getElement for every locator strategy against
+ * an element that is already ready on the local login page, i.e. the framework's own cost of a lookup.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dprofile=Lean", "-Dpool=false"})
+public class GetElementsBenchmark {
+
+    @Param
+    public Locators locator;
+
+    private GetElements getElements;
+    private String value;
+
+    @Setup
+    public void openLoginPage() throws MalformedURLException {
+        BenchmarkSupport.openLoginPage(BenchmarkSupport.createDriver());
+        getElements = new GetElements();
+        value = getValue(locator);
+    }
+
+    @TearDown
+    public void closeDriver() {
+        BenchmarkSupport.closeDriver();
+    }
+
+    @Benchmark
+    public WebElement getElement() {
+        return getElements.getElement(locator, value);
+    }
+
+    /**
+     * Gets the locator value of an element of the local login page for a locator strategy.
+     *
+     * @param locator The locator strategy.
+     * @return The locator value.
+     */
+    private static String getValue(Locators locator) {
+        switch (locator) {
+            case ClassName:
+                return "form-control";
+            case CssSelector:
+                return "#email";
+            case Id:
+                return "email";
+            case LinkText:
+                return "Accept All";
+            case Name:
+                return "email";
+            case PartialLink:
+                return "Forgotten";
+            case TagName:
+                return "input";
+            case Xpath:
+                return LoginPage.EMAIL_ADDRESS_FIELD;
+            default:
+                throw new IllegalArgumentException("Unsupported locator type: " + locator);
+        }
+    }
+}
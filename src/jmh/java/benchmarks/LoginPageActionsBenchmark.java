@@ -0,0 +1,73 @@
+package benchmarks;
+
+import actions.LoginPageActions;
+import constants.TestUsers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+
+import java.net.MalformedURLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LoginPageActionsBenchmark class - measures the LoginPageActions flows on a freshly loaded local
+ * login page, once with a WebDriver command per action and once with batched interactions.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dprofile=Lean", "-Dpool=false"})
+public class LoginPageActionsBenchmark {
+
+    private static final String USER = "joebloggs";
+
+    @Param({"per-command", "batched"})
+    public String interaction;
+
+    private WebDriver driver;
+    private LoginPageActions loginActions;
+
+    @Setup
+    public void createDriver() throws MalformedURLException {
+        System.setProperty("interaction", interaction);
+        driver = BenchmarkSupport.createDriver();
+    }
+
+    @Setup(Level.Invocation)
+    public void openLoginPage() {
+        BenchmarkSupport.openLoginPage(driver);
+        loginActions = new LoginPageActions();
+    }
+
+    @TearDown
+    public void closeDriver() {
+        BenchmarkSupport.closeDriver();
+    }
+
+    @Benchmark
+    public void enterCredentials() {
+        loginActions.clickAcceptCookiesButton();
+        loginActions.enterEmailAddress(TestUsers.getEmailAddress(USER));
+        loginActions.enterPassword(TestUsers.getPassword(USER));
+    }
+
+    @Benchmark
+    public void login() {
+        loginActions.login(TestUsers.getEmailAddress(USER), TestUsers.getPassword(USER));
+    }
+}
@@ -5,6 +5,11 @@ import org.junit.runner.RunWith;
 /**
  * RunTest class - This class is used to run the Cucumber tests.
  * It specifies the location of the feature files, tags to include/exclude, and the plugins for reporting.
+ * Scenarios are run in parallel by the surefire plugin on a fixed number of workers (-Dworkers=N);
+ * each worker thread gets its own driver from DriverFactory.
+ * The streaming report plugin writes the events of the run to target/report/events.ndjson as they
+ * happen and builds the HTML report, summary and live progress view next to it.
+ * The metrics plugin writes command, wait and step latency percentiles to target/metrics.
  * Author: Rob Thomson
  * Date: 06/06/2024
  */
@@ -12,7 +17,7 @@ import org.junit.runner.RunWith;
 @CucumberOptions(
         features = {"src/test/resources/featureFiles/"},
         tags = "not @ignore",
-        plugin = {"pretty", "html:target/site/cucumber-pretty", "json:target/cucumber/cucumber.json"}
+        plugin = {"pretty", "reporting.StreamingReportPlugin:target/report", "metrics.MetricsPlugin:target/metrics"}
 )
 public class RunTest {
     // This class is intentionally left empty. It serves as an entry point for the Cucumber tests.
@@ -1,6 +1,12 @@
 package actions;
 
+import enums.Locators;
+import helpers.BatchInteraction;
+import metrics.TraceRecorder;
+import org.openqa.selenium.WebElement;
 import pages.LoginPage;
+import testBase.DriverFactory;
+import testBase.RequestInterception;
 
 import static constants.Constants.LOGIN_ERROR_MESSAGE;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -17,14 +23,21 @@ public class LoginPageActions {
 
     /**
      * Clicks the "Accept Cookies" button on the login page.
-     * Ensures that the button is not null before attempting to click.
+     * Does nothing when consent cookies were seeded or the banner is not shown.
      */
     public void clickAcceptCookiesButton(){
-        try {
-            if (loginPage.acceptCookiesButton() == null) {
-                throw new NullPointerException("Accept Cookies button is null.");
+        // The banner is not shown when consent cookies were seeded before navigating
+        RequestInterception interception = RequestInterception.forDriver(DriverFactory.getInstance().getDriver());
+        if (interception != null && interception.isConsentSeeded()) {
+            return;
+        }
+        try (TraceRecorder.Span span = TraceRecorder.begin("clickAcceptCookiesButton", TraceRecorder.ACTION)) {
+            WebElement acceptCookiesButton = loginPage.acceptCookiesButton();
+            if (acceptCookiesButton == null) {
+                // No banner, e.g. consent was already given in this session
+                return;
             }
-            loginPage.acceptCookiesButton().click();
+            acceptCookiesButton.click();
         } catch (Exception e) {
             System.err.println("Error clicking Accept Cookies button: " + e.getMessage());
         }
@@ -37,15 +50,16 @@ public class LoginPageActions {
      * @param emailAddress The email address to enter.
      */
     public void enterEmailAddress(String emailAddress) {
-        try {
+        try (TraceRecorder.Span span = TraceRecorder.begin("enterEmailAddress", TraceRecorder.ACTION)) {
             if (emailAddress == null || emailAddress.isEmpty()) {
                 throw new IllegalArgumentException("Email address cannot be null or empty.");
             }
-            if (loginPage.emailAddressField() == null) {
+            WebElement emailAddressField = loginPage.emailAddressField();
+            if (emailAddressField == null) {
                 throw new NullPointerException("Email address field is null.");
             }
-            loginPage.emailAddressField().clear();
-            loginPage.emailAddressField().sendKeys(emailAddress);
+            emailAddressField.clear();
+            emailAddressField.sendKeys(emailAddress);
         } catch (Exception e) {
             System.err.println("Error entering email address: " + e.getMessage());
         }
@@ -58,15 +72,16 @@ public class LoginPageActions {
      * @param password The password to enter.
      */
     public void enterPassword(String password) {
-        try {
+        try (TraceRecorder.Span span = TraceRecorder.begin("enterPassword", TraceRecorder.ACTION)) {
             if (password == null || password.isEmpty()) {
                 throw new IllegalArgumentException("Password cannot be null or empty.");
             }
-            if (loginPage.passwordField() == null) {
+            WebElement passwordField = loginPage.passwordField();
+            if (passwordField == null) {
                 throw new NullPointerException("Password field is null.");
             }
-            loginPage.passwordField().clear();
-            loginPage.passwordField().sendKeys(password);
+            passwordField.clear();
+            passwordField.sendKeys(password);
         } catch (Exception e) {
             System.err.println("Error entering password: " + e.getMessage());
         }
@@ -77,21 +92,73 @@ public class LoginPageActions {
      * Ensures that the button is not null before attempting to click.
      */
     public void clickLoginButton() {
-        try {
-            if (loginPage.loginButton() == null) {
+        try (TraceRecorder.Span span = TraceRecorder.begin("clickLoginButton", TraceRecorder.ACTION)) {
+            WebElement loginButton = loginPage.loginButton();
+            if (loginButton == null) {
                 throw new NullPointerException("Login button is null.");
             }
-            loginPage.loginButton().click();
+            loginButton.click();
         } catch (Exception e) {
             System.err.println("Error clicking Login button: " + e.getMessage());
         }
     }
 
+    /**
+     * Logs in with the provided credentials: accepts the cookie policy, enters the email address
+     * and password and clicks the "Login" button. With -Dinteraction=batched the whole interaction
+     * is sent to the browser as one script call; otherwise each action is a separate WebDriver
+     * command with real keyboard events, on elements resolved together up front.
+     *
+     * @param emailAddress The email address to enter.
+     * @param password     The password to enter.
+     */
+    public void login(String emailAddress, String password) {
+        if (!isBatchedInteraction()) {
+            // The page passed its readiness check on navigation, so resolve the whole form in one call
+            loginPage.hydrate();
+            clickAcceptCookiesButton();
+            enterEmailAddress(emailAddress);
+            enterPassword(password);
+            clickLoginButton();
+            return;
+        }
+
+        if (emailAddress == null || emailAddress.isEmpty()) {
+            throw new IllegalArgumentException("Email address cannot be null or empty.");
+        }
+        if (password == null || password.isEmpty()) {
+            throw new IllegalArgumentException("Password cannot be null or empty.");
+        }
+        try (TraceRecorder.Span span = TraceRecorder.begin("login", TraceRecorder.ACTION)) {
+            // Wait for the form once; the batch itself does not wait for elements
+            loginPage.emailAddressField();
+            new BatchInteraction()
+                    .clickIfPresent(Locators.Xpath, LoginPage.ACCEPT_COOKIES_BUTTON)
+                    .setValue(Locators.Xpath, LoginPage.EMAIL_ADDRESS_FIELD, emailAddress)
+                    .setValue(Locators.Xpath, LoginPage.PASSWORD_FIELD, password)
+                    .click(Locators.Xpath, LoginPage.LOGIN_BUTTON)
+                    .execute();
+        }
+    }
+
+    /**
+     * Indicates whether multi-action interactions are batched into one script call (-Dinteraction=batched).
+     *
+     * @return true if interactions are batched.
+     */
+    private boolean isBatchedInteraction() {
+        return "batched".equalsIgnoreCase(System.getProperty("interaction"));
+    }
+
     public void checkLoginErrorIsDisplayed(){
+        WebElement loginErrorMessage = loginPage.loginErrorMessage();
+        assertThat(loginErrorMessage)
+                .as("Check that the login error is displayed")
+                .isNotNull();
         // Assert that the innerText matches the expected string with a custom message
         assertThat(LOGIN_ERROR_MESSAGE)
                 .as("Check that the innerText of the element matches the expected text")
-                .isEqualTo(loginPage.loginErrorMessage().getAttribute("innerText"));
+                .isEqualTo(loginErrorMessage.getAttribute("innerText"));
 
     }
 }
\ No newline at end of file
@@ -9,8 +9,9 @@ package constants;
 public class Constants {
 
     /**
-     * The base URL for the application's login page.
+     * The base URL for the application's login page on the live test environment.
+     * Use testBase.Environment.getBaseUrl() for the URL of the target selected with -Dtarget.
      */
-    public static final String BASE_URL = "https://test-analytics-enterprise.current.jobs/login.aspx";
+    public static final String LIVE_BASE_URL = "https://test-analytics-enterprise.current.jobs/login.aspx";
     public static final String LOGIN_ERROR_MESSAGE = "Sorry, your username and password don’t match. Please try again or use the forgotten password link above.";
 }
\ No newline at end of file
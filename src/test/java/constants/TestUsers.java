@@ -0,0 +1,94 @@
+package constants;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * TestUsers class to hold the credentials of the test users by alias.
+ * The credentials are read from users.properties on the test classpath.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public class TestUsers {
+
+    private static final String USERS_FILE = "users.properties";
+    private static final Properties USERS = loadUsers();
+
+    // Private constructor to prevent instantiation
+    private TestUsers() {
+    }
+
+    /**
+     * Gets the email address of a test user.
+     *
+     * @param alias The alias of the test user, e.g. "joebloggs".
+     * @return The email address.
+     * @throws IllegalArgumentException if the user is not defined.
+     */
+    public static String getEmailAddress(String alias) {
+        return getValue(alias, "email");
+    }
+
+    /**
+     * Gets the password of a test user.
+     *
+     * @param alias The alias of the test user, e.g. "joebloggs".
+     * @return The password.
+     * @throws IllegalArgumentException if the user is not defined.
+     */
+    public static String getPassword(String alias) {
+        return getValue(alias, "password");
+    }
+
+    /**
+     * Checks whether an email address and password are the credentials of one of the test users.
+     *
+     * @param emailAddress The email address.
+     * @param password     The password.
+     * @return true if a test user has these credentials.
+     */
+    public static boolean isValidLogin(String emailAddress, String password) {
+        for (String key : USERS.stringPropertyNames()) {
+            if (key.endsWith(".email") && USERS.getProperty(key).equalsIgnoreCase(emailAddress)) {
+                String alias = key.substring(0, key.length() - ".email".length());
+                if (USERS.getProperty(alias + ".password", "").equals(password)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads one credential of a test user.
+     *
+     * @param alias The alias of the test user.
+     * @param field The credential field.
+     * @return The credential value.
+     */
+    private static String getValue(String alias, String field) {
+        String value = USERS.getProperty(alias + "." + field);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("No " + field + " defined for test user '" + alias + "' in " + USERS_FILE + ".");
+        }
+        return value;
+    }
+
+    /**
+     * Loads the test users from the classpath.
+     *
+     * @return The test user credentials.
+     */
+    private static Properties loadUsers() {
+        Properties users = new Properties();
+        try (InputStream in = TestUsers.class.getClassLoader().getResourceAsStream(USERS_FILE)) {
+            if (in != null) {
+                users.load(in);
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading " + USERS_FILE + ": " + e.getMessage());
+        }
+        return users;
+    }
+}
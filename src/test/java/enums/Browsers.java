@@ -23,7 +23,13 @@ public enum Browsers {
     IE,
 
     /**
-     * BrowserStack for cross-browser testing in the cloud.
+     * Remote browser on BrowserStack or any Selenium Grid, for cross-browser testing on other hosts (-Dgrid.url).
      */
-    BrowserStack
+    BrowserStack,
+
+    /**
+     * Browserless HtmlUnit driver in the test JVM: HTTP, HTML and CSS without rendering or JavaScript, for a
+     * fast smoke tier. Scenarios tagged @javascript are skipped or moved to -Dhtmlunit.javascriptBrowser.
+     */
+    HtmlUnit
 }
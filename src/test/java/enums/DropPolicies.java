@@ -0,0 +1,23 @@
+package enums;
+
+/**
+ * Enum representing what the artifact writer does when its queue is full, selected with -Dartifacts.dropPolicy.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public enum DropPolicies {
+    /**
+     * Drop the artifact that was just captured and keep the queued ones.
+     */
+    Newest,
+
+    /**
+     * Drop the oldest queued artifact to make room for the one that was just captured.
+     */
+    Oldest,
+
+    /**
+     * Drop nothing: the scenario thread encodes and writes the artifact itself, slowing down its teardown.
+     */
+    Inline
+}
@@ -0,0 +1,20 @@
+package enums;
+
+/**
+ * Enum representing the named browser launch profiles that can be selected with -Dprofile.
+ * This enum provides a central place for managing the launch profiles supported by the BrowserFactory.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public enum LaunchProfiles {
+    /**
+     * Headed browser with its default features and a maximized window.
+     */
+    Default,
+
+    /**
+     * Headless browser with a fixed viewport and extensions, background networking and GPU disabled.
+     * Images and fonts can optionally be blocked.
+     */
+    Lean
+}
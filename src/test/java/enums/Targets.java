@@ -0,0 +1,19 @@
+package enums;
+
+/**
+ * Enum representing the targets the tests can run against, selected with -Dtarget.
+ * This enum provides a central place for managing the environments supported by the framework.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public enum Targets {
+    /**
+     * The live test environment of the application at Constants.LIVE_BASE_URL.
+     */
+    Live,
+
+    /**
+     * The embedded LocalAppServer, serving recorded snapshots of the application without network.
+     */
+    Local
+}
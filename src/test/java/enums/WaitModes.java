@@ -0,0 +1,19 @@
+package enums;
+
+/**
+ * Enum representing how element waits find out that an element is ready, selected with -Dwait.mode.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public enum WaitModes {
+    /**
+     * Check the element with one WebDriver command per poll, backing off between polls.
+     */
+    Polling,
+
+    /**
+     * Watch the page with a MutationObserver inside the browser and block on a single async script
+     * call until the element is ready. Falls back to polling where the browser cannot do this.
+     */
+    Observer
+}
@@ -0,0 +1,170 @@
+package helpers;
+
+import enums.Locators;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import testBase.DriverFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * BatchInteraction class - collects an ordered list of actions on page locators and runs them
+ * in the browser with a single JavascriptExecutor call instead of one WebDriver command per action.
+ * Values are set through the native value setter and followed by input and change events, so no
+ * real keyboard events are sent; use the per-command page actions where those are needed.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public class BatchInteraction {
+
+    private static final String SET_VALUE = "setValue";
+    private static final String DISPATCH = "dispatch";
+    private static final String CLICK = "click";
+
+    private static final String BATCH_SCRIPT =
+            "var find = " + JsLocators.FIND_FUNCTION + ";"
+                    + "var actions = arguments[0];"
+                    + "for (var i = 0; i < actions.length; i++) {"
+                    + "  var action = actions[i];"
+                    + "  try {"
+                    + "    var element = find(action[1], action[2]);"
+                    + "    if (!element) {"
+                    + "      if (action[4]) { continue; }"
+                    + "      return {index: i, message: 'element not found'};"
+                    + "    }"
+                    + "    switch (action[0]) {"
+                    + "      case 'setValue':"
+                    + "        var proto = Object.getPrototypeOf(element);"
+                    + "        var descriptor = Object.getOwnPropertyDescriptor(proto, 'value');"
+                    + "        if (descriptor && descriptor.set) { descriptor.set.call(element, action[3]); }"
+                    + "        else { element.value = action[3]; }"
+                    + "        element.dispatchEvent(new Event('input', {bubbles: true}));"
+                    + "        element.dispatchEvent(new Event('change', {bubbles: true}));"
+                    + "        break;"
+                    + "      case 'dispatch':"
+                    + "        element.dispatchEvent(new Event(action[3], {bubbles: true}));"
+                    + "        break;"
+                    + "      case 'click':"
+                    + "        element.click();"
+                    + "        break;"
+                    + "    }"
+                    + "  } catch (e) {"
+                    + "    return {index: i, message: String(e && e.message ? e.message : e)};"
+                    + "  }"
+                    + "}"
+                    + "return null;";
+
+    private final WebDriver driver;
+
+    // Each action is [type, locator strategy, locator value, argument, optional]
+    private final List<List<Object>> actions = new ArrayList<>();
+
+    /**
+     * Constructor for the BatchInteraction class.
+     * Initializes the WebDriver instance.
+     */
+    public BatchInteraction() {
+        this.driver = DriverFactory.getInstance().getDriver();
+    }
+
+    /**
+     * Adds an action that sets the value of a field and dispatches input and change events.
+     *
+     * @param locator The type of locator.
+     * @param value   The value of the locator.
+     * @param text    The value to set.
+     * @return This batch, for chaining.
+     */
+    public BatchInteraction setValue(Locators locator, String value, String text) {
+        return add(SET_VALUE, locator, value, text, false);
+    }
+
+    /**
+     * Adds an action that dispatches a bubbling DOM event on an element.
+     *
+     * @param locator   The type of locator.
+     * @param value     The value of the locator.
+     * @param eventType The event type, e.g. "blur".
+     * @return This batch, for chaining.
+     */
+    public BatchInteraction dispatch(Locators locator, String value, String eventType) {
+        return add(DISPATCH, locator, value, eventType, false);
+    }
+
+    /**
+     * Adds an action that clicks an element.
+     *
+     * @param locator The type of locator.
+     * @param value   The value of the locator.
+     * @return This batch, for chaining.
+     */
+    public BatchInteraction click(Locators locator, String value) {
+        return add(CLICK, locator, value, null, false);
+    }
+
+    /**
+     * Adds an action that clicks an element if it is present and is skipped otherwise,
+     * e.g. for a cookie banner that is not always shown.
+     *
+     * @param locator The type of locator.
+     * @param value   The value of the locator.
+     * @return This batch, for chaining.
+     */
+    public BatchInteraction clickIfPresent(Locators locator, String value) {
+        return add(CLICK, locator, value, null, true);
+    }
+
+    /**
+     * Runs all actions in order with one script call. Fails with the index and description of the
+     * first action that could not be performed; the actions after it are not run.
+     */
+    public void execute() {
+        assertThat(driver instanceof JavascriptExecutor)
+                .withFailMessage("Batched interactions need a driver that can execute JavaScript.")
+                .isTrue();
+        if (actions.isEmpty()) {
+            return;
+        }
+
+        Object result = ((JavascriptExecutor) driver).executeScript(BATCH_SCRIPT, actions);
+        if (result instanceof Map) {
+            Map<?, ?> failure = (Map<?, ?>) result;
+            int index = ((Number) failure.get("index")).intValue();
+            assertThat(false)
+                    .withFailMessage("Error: Batched action %d (%s) failed: %s", index, describe(actions.get(index)), failure.get("message"))
+                    .isTrue();
+        }
+    }
+
+    /**
+     * Adds an action to the batch after validating its locator.
+     *
+     * @param type     The action type.
+     * @param locator  The type of locator.
+     * @param value    The value of the locator.
+     * @param argument The value to set or event to dispatch, if any.
+     * @param optional Whether the action is skipped when the element is missing.
+     * @return This batch, for chaining.
+     */
+    private BatchInteraction add(String type, Locators locator, String value, String argument, boolean optional) {
+        assertThat(locator).withFailMessage("Locator cannot be null.").isNotNull();
+        assertThat(value).withFailMessage("Value cannot be null or empty.").isNotNull().isNotEmpty();
+        actions.add(Arrays.asList(type, locator.name(), value, argument, optional));
+        return this;
+    }
+
+    /**
+     * Describes an action for failure messages, without the value that was being set.
+     *
+     * @param action The action.
+     * @return The action type and locator.
+     */
+    private String describe(List<Object> action) {
+        return action.get(0) + " on " + action.get(1) + " " + action.get(2);
+    }
+}
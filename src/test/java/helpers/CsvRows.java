@@ -0,0 +1,196 @@
+package helpers;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * CsvRows class - reads a CSV file with a header row one row at a time, so a data file of any size
+ * can be run without loading it. Each row is a map from column name to value. Fields may be quoted
+ * with double quotes ("" inside quotes is a quote); blank lines and lines starting with # are skipped.
+ * A row that cannot be parsed fails on its own call to {@link #next()}, and the rows after it can still be read.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public final class CsvRows implements Iterator<Map<String, String>>, Closeable {
+
+    private final Path file;
+    private final BufferedReader reader;
+    private final List<String> header;
+
+    private List<String> next;
+    private String nextError;
+    private int lineNumber;
+    private int nextLineNumber;
+
+    private CsvRows(Path file) throws IOException {
+        this.file = file;
+        this.reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        this.header = readRecord();
+        if (header == null) {
+            reader.close();
+            throw new IllegalArgumentException("Data file " + file + " has no header row.");
+        }
+        advance();
+    }
+
+    /**
+     * Opens a CSV file and reads its header row.
+     *
+     * @param file The CSV file.
+     * @return The rows of the file, to be closed by the caller.
+     * @throws IOException If the file cannot be read.
+     * @throws IllegalArgumentException if the file has no header row.
+     */
+    public static CsvRows open(Path file) throws IOException {
+        return new CsvRows(file);
+    }
+
+    /**
+     * Gets the column names from the header row.
+     *
+     * @return The column names.
+     */
+    public List<String> getHeader() {
+        return header;
+    }
+
+    /**
+     * Gets the line of the file the last row returned by {@link #next()} was read from.
+     *
+     * @return The line number, starting at 1 for the header row.
+     */
+    public int getLineNumber() {
+        return nextLineNumber;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    /**
+     * Gets the next row. A row that cannot be parsed is skipped: its line number is still returned
+     * by {@link #getLineNumber()} and the following call reads the row after it.
+     *
+     * @return The values of the row by column name.
+     * @throws NoSuchElementException if there are no more rows.
+     * @throws IllegalArgumentException if the row has an unterminated quote or a different number of fields than the header.
+     */
+    @Override
+    public Map<String, String> next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        String error = nextError;
+        if (error == null && next.size() != header.size()) {
+            error = String.format("Line %d of %s has %d fields, the header has %d.",
+                    lineNumber, file, next.size(), header.size());
+        }
+        Map<String, String> row = new LinkedHashMap<>();
+        if (error == null) {
+            for (int i = 0; i < header.size(); i++) {
+                row.put(header.get(i), next.get(i));
+            }
+        }
+        nextLineNumber = lineNumber;
+        try {
+            advance();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Reads the next record ahead of the call to {@link #next()} that returns it, keeping a parse
+     * error for that call rather than failing the row before it.
+     *
+     * @throws IOException If the file cannot be read.
+     */
+    private void advance() throws IOException {
+        nextError = null;
+        try {
+            next = readRecord();
+        } catch (IllegalArgumentException e) {
+            next = Collections.emptyList();
+            nextError = e.getMessage();
+        }
+    }
+
+    /**
+     * Reads the fields of the next record, skipping blank and comment lines.
+     *
+     * @return The fields, or null at the end of the file.
+     * @throws IOException If the file cannot be read.
+     */
+    private List<String> readRecord() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (!line.trim().isEmpty() && !line.startsWith("#")) {
+                return parse(line);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Splits a line into fields.
+     *
+     * @param line The line.
+     * @return The fields, with surrounding whitespace of unquoted fields trimmed.
+     */
+    private List<String> parse(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                fields.add(wasQuoted ? field.toString() : field.toString().trim());
+                field.setLength(0);
+                wasQuoted = false;
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException(String.format("Line %d of %s has an unterminated quote.", lineNumber, file));
+        }
+        fields.add(wasQuoted ? field.toString() : field.toString().trim());
+        return fields;
+    }
+}
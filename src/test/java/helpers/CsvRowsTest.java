@@ -0,0 +1,122 @@
+package helpers;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * CsvRowsTest class - unit tests of the quoting, line numbering and malformed row handling of {@link CsvRows}.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public class CsvRowsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readsTheHeaderAndRowsByColumnName() throws IOException {
+        try (CsvRows rows = CsvRows.open(write("email,password", "a@b.com,secret", " c@d.com , other "))) {
+            assertThat(rows.getHeader()).containsExactly("email", "password");
+            assertThat(rows.next()).containsExactly(entry("email", "a@b.com"), entry("password", "secret"));
+            assertThat(rows.next()).containsExactly(entry("email", "c@d.com"), entry("password", "other"));
+            assertThat(rows.hasNext()).isFalse();
+        }
+    }
+
+    @Test
+    public void keepsCommasQuotesAndWhitespaceInsideQuotes() throws IOException {
+        try (CsvRows rows = CsvRows.open(write("name,comment", "\"Smith, J\",\" said \"\"hi\"\" \""))) {
+            Map<String, String> row = rows.next();
+            assertThat(row.get("name")).isEqualTo("Smith, J");
+            assertThat(row.get("comment")).isEqualTo(" said \"hi\" ");
+        }
+    }
+
+    @Test
+    public void keepsEmptyFields() throws IOException {
+        try (CsvRows rows = CsvRows.open(write("a,b,c", ",,\"\""))) {
+            assertThat(rows.next()).containsExactly(entry("a", ""), entry("b", ""), entry("c", ""));
+        }
+    }
+
+    @Test
+    public void countsSkippedBlankAndCommentLines() throws IOException {
+        try (CsvRows rows = CsvRows.open(write("# logins", "email", "", "first", "# disabled", "   ", "second"))) {
+            assertThat(rows.next().get("email")).isEqualTo("first");
+            assertThat(rows.getLineNumber()).isEqualTo(4);
+            assertThat(rows.next().get("email")).isEqualTo("second");
+            assertThat(rows.getLineNumber()).isEqualTo(7);
+            assertThat(rows.hasNext()).isFalse();
+        }
+    }
+
+    @Test
+    public void failsARowWithTheWrongNumberOfFieldsAndGoesOn() throws IOException {
+        try (CsvRows rows = CsvRows.open(write("email,password", "a@b.com", "c@d.com,secret"))) {
+            assertThatThrownBy(rows::next)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Line 2")
+                    .hasMessageContaining("has 1 fields, the header has 2");
+            assertThat(rows.getLineNumber()).isEqualTo(2);
+            assertThat(rows.next().get("email")).isEqualTo("c@d.com");
+            assertThat(rows.getLineNumber()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    public void failsARowWithAnUnterminatedQuoteAndGoesOn() throws IOException {
+        try (CsvRows rows = CsvRows.open(write("email,password", "a@b.com,secret", "\"c@d.com,secret", "e@f.com,secret"))) {
+            // The bad line is read ahead, but only fails the call that returns it
+            assertThat(rows.next().get("email")).isEqualTo("a@b.com");
+            assertThatThrownBy(rows::next)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Line 3")
+                    .hasMessageContaining("unterminated quote");
+            assertThat(rows.getLineNumber()).isEqualTo(3);
+            assertThat(rows.next().get("email")).isEqualTo("e@f.com");
+            assertThat(rows.hasNext()).isFalse();
+        }
+    }
+
+    @Test
+    public void failsAtTheEndOfTheRows() throws IOException {
+        try (CsvRows rows = CsvRows.open(write("email"))) {
+            assertThat(rows.hasNext()).isFalse();
+            assertThatThrownBy(rows::next).isInstanceOf(NoSuchElementException.class);
+        }
+    }
+
+    @Test
+    public void rejectsAFileWithoutAHeader() throws IOException {
+        Path file = write("", "# nothing here");
+        assertThatThrownBy(() -> CsvRows.open(file))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("has no header row");
+    }
+
+    /**
+     * Writes the given lines to a new CSV file.
+     *
+     * @param lines The lines of the file.
+     * @return The file.
+     * @throws IOException If the file cannot be written.
+     */
+    private Path write(String... lines) throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, Arrays.asList(lines), StandardCharsets.UTF_8);
+        return file;
+    }
+}
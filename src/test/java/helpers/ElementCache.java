@@ -0,0 +1,234 @@
+package helpers;
+
+import enums.Locators;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ElementCache class - page-scoped cache of resolved web elements.
+ * A cached element is handed out again after a single probe that checks it is still attached,
+ * visible and enabled, and that the page has not navigated since it was resolved. Stale elements
+ * and elements from a previous page are re-resolved through {@link GetElements}. A page object can
+ * hydrate the cache with all its declared elements at once with {@link #hydrate(PageElements)}.
+ * Hit and miss counts are kept per locator across all pages and reported when the JVM shuts down.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public class ElementCache {
+
+    private static final String PROBE_SCRIPT =
+            "return window.location.href === arguments[1] && (" + JsLocators.READY_FUNCTION + ")(arguments[0]);";
+
+    // Hit and miss counts per locator, shared by all page objects
+    private static final Map<String, LongAdder> HITS = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> MISSES = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (!HITS.isEmpty() || !MISSES.isEmpty()) {
+                System.out.println(getStatistics());
+            }
+        }, "element-cache-statistics"));
+    }
+
+    private final GetElements element;
+
+    // Resolved elements of the current page, keyed by locator
+    private final Map<String, WebElement> elements = new HashMap<>();
+
+    // URL of the page the cached elements belong to
+    private String pageUrl;
+
+    /**
+     * Constructor for the ElementCache class.
+     *
+     * @param element The GetElements helper used to resolve elements on a cache miss.
+     */
+    public ElementCache(GetElements element) {
+        this.element = element;
+    }
+
+    /**
+     * Retrieves a web element from the cache, resolving it through GetElements when it is not
+     * cached yet, has gone stale or belongs to a page the browser has navigated away from.
+     *
+     * @param locator The type of locator (e.g., ID, XPath, etc.).
+     * @param value   The value of the locator.
+     * @return The web element, or null if the element is not found.
+     */
+    public WebElement getElement(Locators locator, String value) {
+        return getElement(locator, value, false);
+    }
+
+    /**
+     * Retrieves a web element that may legitimately be absent from the cache, resolving it through
+     * {@link GetElements#getOptionalElement(Locators, String)} on a miss, which gives up quickly.
+     *
+     * @param locator The type of locator (e.g., ID, XPath, etc.).
+     * @param value   The value of the locator.
+     * @return The web element, or null if the element is not shown.
+     */
+    public WebElement getOptionalElement(Locators locator, String value) {
+        return getElement(locator, value, true);
+    }
+
+    /**
+     * Retrieves the element of a page object accessor by the {@link Locate} annotation on that accessor,
+     * so the annotation is the only place its locator is written down. Optional elements are resolved
+     * with {@link #getOptionalElement(Locators, String)}, the others, including elements shown after an
+     * action, with {@link #getElement(Locators, String)} and its full timeout.
+     *
+     * @param declared The locators the page object declares.
+     * @param accessor The name of the accessor.
+     * @return The web element, or null if the element is not found.
+     * @throws IllegalArgumentException if the accessor declares no locator.
+     */
+    public WebElement getDeclared(PageElements declared, String accessor) {
+        Locate locate = declared.getLocators().get(accessor);
+        if (locate == null) {
+            throw new IllegalArgumentException("No @Locate declared on accessor " + accessor);
+        }
+        return getElement(locate.locator(), locate.value(), locate.optional());
+    }
+
+    /**
+     * Retrieves a web element from the cache, resolving it on a miss.
+     *
+     * @param locator  The type of locator (e.g., ID, XPath, etc.).
+     * @param value    The value of the locator.
+     * @param optional Whether the element may be absent.
+     * @return The web element, or null if the element is not found.
+     */
+    private WebElement getElement(Locators locator, String value, boolean optional) {
+        String key = locator + ":" + value;
+        WebElement cached = elements.get(key);
+        if (cached != null && isUsable(cached)) {
+            HITS.computeIfAbsent(key, k -> new LongAdder()).increment();
+            return cached;
+        }
+
+        MISSES.computeIfAbsent(key, k -> new LongAdder()).increment();
+        WebElement resolved = optional ? element.getOptionalElement(locator, value) : element.getElement(locator, value);
+        if (resolved != null) {
+            if (pageUrl == null) {
+                pageUrl = element.getDriver().getCurrentUrl();
+            }
+            elements.put(key, resolved);
+        }
+        return resolved;
+    }
+
+    /**
+     * Fills the cache with every element a page object declares, resolved with a single script call,
+     * so the accessors hand them out without waiting. Elements from a previous page are dropped first.
+     * Call it once the page's readiness check has passed; missing elements are resolved one by one
+     * when they are asked for, as before.
+     *
+     * @param declared The locators the page object declares.
+     * @return The elements found and the names of the ones that are missing.
+     */
+    public PageElements.Result hydrate(PageElements declared) {
+        PageElements.Result result = declared.resolve(element.getDriver());
+        if (pageUrl != null && !pageUrl.equals(result.getUrl())) {
+            invalidate();
+        }
+        pageUrl = result.getUrl();
+        for (Map.Entry<String, WebElement> found : result.getElements().entrySet()) {
+            Locate locate = declared.getLocators().get(found.getKey());
+            elements.put(locate.locator() + ":" + locate.value(), found.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Drops every cached element, e.g. after an action that is known to navigate.
+     */
+    public void invalidate() {
+        elements.clear();
+        pageUrl = null;
+    }
+
+    /**
+     * Checks a cached element with one probe. A navigation away from the page invalidates the whole cache.
+     *
+     * @param cached The cached element.
+     * @return true if the element can be handed out again.
+     */
+    private boolean isUsable(WebElement cached) {
+        try {
+            WebDriver driver = element.getDriver();
+            if (driver instanceof JavascriptExecutor) {
+                boolean usable = Boolean.TRUE.equals(((JavascriptExecutor) driver).executeScript(PROBE_SCRIPT, cached, pageUrl));
+                if (!usable && !driver.getCurrentUrl().equals(pageUrl)) {
+                    invalidate();
+                }
+                return usable;
+            }
+            return cached.isDisplayed() && cached.isEnabled();
+        } catch (StaleElementReferenceException e) {
+            invalidate();
+            return false;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Builds a report of hit and miss counts per locator.
+     *
+     * @return The cache statistics, one locator per line.
+     */
+    public static String getStatistics() {
+        Set<String> locators = new TreeSet<>(HITS.keySet());
+        locators.addAll(MISSES.keySet());
+        StringBuilder report = new StringBuilder("Element cache statistics:");
+        for (String key : locators) {
+            report.append(String.format("%n  %s hits=%d misses=%d", key, getCount(HITS, key), getCount(MISSES, key)));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Gets the hit count of a locator.
+     *
+     * @param locator The type of locator.
+     * @param value   The value of the locator.
+     * @return The number of cache hits.
+     */
+    public static long getHitCount(Locators locator, String value) {
+        return getCount(HITS, locator + ":" + value);
+    }
+
+    /**
+     * Gets the miss count of a locator.
+     *
+     * @param locator The type of locator.
+     * @param value   The value of the locator.
+     * @return The number of cache misses.
+     */
+    public static long getMissCount(Locators locator, String value) {
+        return getCount(MISSES, locator + ":" + value);
+    }
+
+    /**
+     * Reads a counter, treating a locator that was never counted as zero.
+     *
+     * @param counts The hit or miss counters.
+     * @param key    The locator key.
+     * @return The count.
+     */
+    private static long getCount(Map<String, LongAdder> counts, String key) {
+        LongAdder count = counts.get(key);
+        return count == null ? 0 : count.sum();
+    }
+}
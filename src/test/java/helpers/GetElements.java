@@ -1,68 +1,364 @@
 package helpers;
 
 import enums.Locators;
+import enums.WaitModes;
+import metrics.Metrics;
+import metrics.TraceRecorder;
 import org.openqa.selenium.*;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import testBase.DriverContext;
 import testBase.DriverFactory;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * GetElements class - custom locator class that waits for element visibility and clickability of the element.
+ * Lookup and readiness are checked in a single WebDriver command per poll. Polling backs off exponentially
+ * from a few milliseconds and timeouts are learned per page and locator from the {@link WaitHistory}.
+ * With -Dwait.mode=observer a wait is a single async script call that watches the page for the element instead.
  * This class provides methods to retrieve web elements based on different locator strategies.
  * Author: Rob Thomson
  * Date: 06/06/2024
  */
 public class GetElements {
 
-    private final WebDriver driver;
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration DEFAULT_POLLING = Duration.ofMillis(Long.getLong("wait.pollingMs", 500));
+    private static final Duration INITIAL_POLLING = Duration.ofMillis(Long.getLong("wait.initialPollingMs", 5));
+    private static final Duration OPTIONAL_TIMEOUT = Duration.ofMillis(Long.getLong("wait.optionalTimeoutMs", 1000));
+    private static final String DEFAULT_PAGE = "default";
+    private static final WaitModes WAIT_MODE = getWaitMode();
+
+    // Longest single watcher call, below the 30 second script timeout browsers default to
+    private static final Duration OBSERVER_SLICE = Duration.ofSeconds(20);
+
+    // The driver is taken from the context on every call, so a GetElements kept beyond its
+    // scenario fails fast instead of using a pooled browser that now belongs to another scenario
+    private final DriverContext context;
+
+    // Page the looked up elements belong to, for the wait history
+    private final String page;
 
     /**
      * Constructor for the GetElements class.
-     * Initializes the WebDriver instance.
+     * Uses the driver context of the current thread.
      */
     public GetElements() {
-        this.driver = DriverFactory.getInstance().getDriver();
+        this(DriverFactory.getInstance().getContext(), DEFAULT_PAGE);
+    }
+
+    /**
+     * Constructor for the GetElements class for the elements of one page.
+     * Uses the driver context of the current thread.
+     *
+     * @param page The page the elements belong to, e.g. the page object name. Wait times are learned per page and locator.
+     */
+    public GetElements(String page) {
+        this(DriverFactory.getInstance().getContext(), page);
+    }
+
+    /**
+     * Constructor for the GetElements class.
+     *
+     * @param context The driver context of the scenario, which may belong to another thread.
+     */
+    public GetElements(DriverContext context) {
+        this(context, DEFAULT_PAGE);
+    }
+
+    /**
+     * Constructor for the GetElements class.
+     *
+     * @param context The driver context of the scenario, which may belong to another thread.
+     * @param page    The page the elements belong to, e.g. the page object name.
+     */
+    public GetElements(DriverContext context, String page) {
+        this.context = context;
+        this.page = page;
+    }
+
+    /**
+     * Gets the driver of the scenario this helper belongs to.
+     *
+     * @return The WebDriver instance.
+     * @throws IllegalStateException if the scenario has handed its driver back.
+     */
+    public WebDriver getDriver() {
+        return context.getDriver();
     }
 
     /**
      * Retrieves a web element based on the provided locator and value.
-     * This method waits for the element to be visible and clickable before returning it.
+     * This method waits for the element to be visible and clickable before returning it, with the
+     * timeout learned from the wait history of the locator on this page (at most the default timeout).
      *
      * @param locator The type of locator (e.g., ID, XPath, etc.).
      * @param value The value of the locator.
      * @return The web element located by the specified locator and value, or null if the element is not found.
      */
     public WebElement getElement(Locators locator, String value) {
-        validateInput(locator, value);
+        Duration timeout = WaitHistory.getInstance().getTimeout(getHistoryKey(locator, value), DEFAULT_TIMEOUT);
+        return waitForElement(locator, value, timeout, DEFAULT_POLLING, false);
+    }
 
-        try {
-            WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-            By byElement = getByElement(locator, value);
+    /**
+     * Retrieves a web element based on the provided locator and value.
+     * The element is located and checked for visibility and clickability in one combined condition,
+     * which costs a single WebDriver command per poll and returns the element it found. If the element
+     * is already ready the first check returns it at once. Otherwise the checks start a few milliseconds
+     * apart and back off exponentially up to the polling interval.
+     *
+     * @param locator The type of locator (e.g., ID, XPath, etc.).
+     * @param value The value of the locator.
+     * @param timeout How long to wait for the element to become ready.
+     * @param polling The longest sleep between checks.
+     * @return The web element located by the specified locator and value, or null if the element is not found.
+     */
+    public WebElement getElement(Locators locator, String value, Duration timeout, Duration polling) {
+        return waitForElement(locator, value, timeout, polling, false);
+    }
 
-            wait.until(ExpectedConditions.visibilityOfElementLocated(byElement));
-            wait.until(ExpectedConditions.elementToBeClickable(byElement));
+    /**
+     * Retrieves a web element that may legitimately be absent, such as a cookie banner that is not
+     * always shown. Gives up after the learned timeout of the locator, or -Dwait.optionalTimeoutMs
+     * (default 1000) if that is shorter, and does not fail the scenario when the element is absent.
+     *
+     * @param locator The type of locator (e.g., ID, XPath, etc.).
+     * @param value The value of the locator.
+     * @return The web element, or null if it did not become ready in time.
+     */
+    public WebElement getOptionalElement(Locators locator, String value) {
+        Duration timeout = WaitHistory.getInstance().getTimeout(getHistoryKey(locator, value), OPTIONAL_TIMEOUT);
+        return waitForElement(locator, value, timeout, DEFAULT_POLLING, true);
+    }
 
-            return driver.findElement(byElement);
-        } catch (TimeoutException e) {
-            assertThat(false)
-                    .withFailMessage("Error: Element with locator %s and value %s was not found within the timeout period.", locator, value)
-                    .isTrue();
-        } catch (NoSuchElementException e) {
+    /**
+     * Waits for an element to be ready and records the wait in the metrics, the trace and, when the
+     * element was found, the wait history. With -Dwait.mode=observer the wait runs inside the browser;
+     * otherwise, or where the browser cannot watch the page, the element is polled with exponential backoff.
+     *
+     * @param locator  The type of locator (e.g., ID, XPath, etc.).
+     * @param value    The value of the locator.
+     * @param timeout  How long to wait for the element to become ready.
+     * @param polling  The longest sleep between checks.
+     * @param optional Whether the element may be absent, in which case null is returned instead of failing.
+     * @return The web element, or null if the element is not found.
+     */
+    private WebElement waitForElement(Locators locator, String value, Duration timeout, Duration polling, boolean optional) {
+        validateInput(locator, value);
+
+        WebDriver driver = context.getDriver();
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        boolean found = false;
+        try {
+            WebElement element = null;
+            boolean observed = false;
+            if (WAIT_MODE == WaitModes.Observer && driver instanceof JavascriptExecutor) {
+                try {
+                    element = observeElement((JavascriptExecutor) driver, locator, value, deadline);
+                    observed = true;
+                } catch (UnsupportedCommandException e) {
+                    // No MutationObserver or no async scripts in this browser
+                }
+            }
+            if (!observed) {
+                element = pollElement(readyElement(driver, locator, value), driver, deadline, polling);
+            }
+            if (element != null) {
+                found = true;
+                return element;
+            }
+            if (!optional) {
+                // Name a learned timeout, so a failure caused by a too tight history is recognisable
+                String learned = timeout.compareTo(DEFAULT_TIMEOUT) < 0
+                        ? String.format(" (learned from the wait history; -Dwait.adaptive=false waits %d ms)", DEFAULT_TIMEOUT.toMillis())
+                        : "";
+                assertThat(false)
+                        .withFailMessage("Error: Element with locator %s and value %s was not found within %d ms%s.",
+                                locator, value, timeout.toMillis(), learned)
+                        .isTrue();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             assertThat(false)
-                    .withFailMessage("Error: Element with locator %s and value %s was not found.", locator, value)
+                    .withFailMessage("Interrupted while waiting for element with locator %s and value %s.", locator, value)
                     .isTrue();
         } catch (WebDriverException e) {
-            assertThat(false)
-                    .withFailMessage("WebDriver error: %s", e.getMessage())
-                    .isTrue();
+            if (!optional) {
+                assertThat(false)
+                        .withFailMessage("WebDriver error: %s", e.getMessage())
+                        .isTrue();
+            }
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Metrics.record(Metrics.ELEMENT_WAIT, locator + ":" + value, elapsed);
+            TraceRecorder.record(locator + ":" + value, TraceRecorder.WAIT, start, elapsed);
+            if (found) {
+                WaitHistory.getInstance().record(getHistoryKey(locator, value), elapsed);
+            }
         }
 
         return null;
     }
 
+    /**
+     * Polls a readiness condition until it returns an element or the deadline passes. The checks
+     * start a few milliseconds apart and back off exponentially up to the polling interval.
+     *
+     * @param readyElement The readiness condition.
+     * @param driver       The driver to check with.
+     * @param deadline     The System.nanoTime() by which to give up.
+     * @param polling      The longest sleep between checks.
+     * @return The ready element, or null on timeout.
+     * @throws InterruptedException If the thread is interrupted while sleeping.
+     */
+    private static WebElement pollElement(ExpectedCondition<WebElement> readyElement, WebDriver driver, long deadline, Duration polling)
+            throws InterruptedException {
+        long pollNanos = Math.min(INITIAL_POLLING.toNanos(), polling.toNanos());
+        while (true) {
+            // The element is usually ready by the time a step asks for it, so check before sleeping
+            WebElement element = check(readyElement, driver);
+            if (element != null) {
+                return element;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return null;
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.min(pollNanos, remaining));
+            pollNanos = Math.min(pollNanos * 2, polling.toNanos());
+        }
+    }
+
+    /**
+     * Waits for an element inside the browser: installs a MutationObserver watcher and blocks on the
+     * async script until the element is ready or the deadline passes, so a wait usually costs one
+     * WebDriver command. Waits longer than the browser's default script timeout are split into
+     * slices, and a navigation that ends the script installs the watcher again on the new page, after
+     * a pause that backs off like polling so a page that keeps navigating is not hammered.
+     *
+     * @param driver   The driver to wait with.
+     * @param locator  The type of locator.
+     * @param value    The value of the locator.
+     * @param deadline The System.nanoTime() by which to give up.
+     * @return The ready element, or null on timeout.
+     * @throws UnsupportedCommandException If the browser cannot run the watcher, so the caller polls instead.
+     * @throws JavascriptException         If the script fails for any reason other than a navigation.
+     * @throws InterruptedException        If the thread is interrupted while pausing after a navigation.
+     */
+    private static WebElement observeElement(JavascriptExecutor driver, Locators locator, String value, long deadline)
+            throws InterruptedException {
+        long pauseNanos = INITIAL_POLLING.toNanos();
+        while (true) {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            long sliceMillis = Math.max(0, Math.min(remainingMillis, OBSERVER_SLICE.toMillis()));
+            Object result;
+            try {
+                result = driver.executeAsyncScript(JsLocators.OBSERVE_READY_ELEMENT_SCRIPT, locator.name(), value, sliceMillis);
+            } catch (ScriptTimeoutException e) {
+                // The script timeout of the session is shorter than the slice
+                result = null;
+            } catch (JavascriptException e) {
+                if (!isNavigation(e)) {
+                    throw e;
+                }
+                // The document went away under the watcher, e.g. a click navigated; watch the new page
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return null;
+                }
+                TimeUnit.NANOSECONDS.sleep(Math.min(pauseNanos, remaining));
+                pauseNanos = Math.min(pauseNanos * 2, DEFAULT_POLLING.toNanos());
+                continue;
+            }
+            if (result instanceof WebElement) {
+                return (WebElement) result;
+            }
+            if (JsLocators.OBSERVER_UNSUPPORTED.equals(result)) {
+                throw new UnsupportedCommandException("MutationObserver is not available in this browser.");
+            }
+            if (result instanceof Map) {
+                throw new JavascriptException(String.valueOf(((Map<?, ?>) result).get("error")));
+            }
+            if (deadline - System.nanoTime() <= 0) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Tells whether a script error was caused by the page navigating away while the script ran,
+     * as reported by Chrome ("document unloaded", "target navigated") and Firefox ("Document was unloaded").
+     *
+     * @param e The script error.
+     * @return true if the script ended because of a navigation.
+     */
+    private static boolean isNavigation(JavascriptException e) {
+        String message = String.valueOf(e.getMessage()).toLowerCase();
+        return message.contains("unloaded") || message.contains("navigated");
+    }
+
+    /**
+     * Checks a readiness condition once. An element that is missing or went stale counts as not ready.
+     *
+     * @param readyElement The readiness condition.
+     * @param driver       The driver to check with.
+     * @return The ready element, or null.
+     */
+    private static WebElement check(ExpectedCondition<WebElement> readyElement, WebDriver driver) {
+        try {
+            return readyElement.apply(driver);
+        } catch (NoSuchElementException | StaleElementReferenceException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the wait history key of a locator on the page this helper belongs to.
+     *
+     * @param locator The locator strategy.
+     * @param value   The value of the locator.
+     * @return The history key.
+     */
+    private String getHistoryKey(Locators locator, String value) {
+        return WaitHistory.getKey(page, locator + ":" + value);
+    }
+
+    /**
+     * Builds the combined readiness condition for a locator. With a JavaScript capable driver the
+     * lookup, visibility and enabled checks run in the browser in one script call; otherwise they
+     * fall back to findElements plus isDisplayed and isEnabled on the element found.
+     *
+     * @param driver  The driver to look the element up with.
+     * @param locator The locator strategy to use.
+     * @param value   The value of the locator.
+     * @return A condition that returns the ready element, or null while it is not ready.
+     */
+    private static ExpectedCondition<WebElement> readyElement(WebDriver driver, Locators locator, String value) {
+        if (driver instanceof JavascriptExecutor) {
+            return webDriver -> (WebElement) ((JavascriptExecutor) webDriver)
+                    .executeScript(JsLocators.FIND_READY_ELEMENT_SCRIPT, locator.name(), value);
+        }
+        By byElement = getByElement(locator, value);
+        return webDriver -> {
+            try {
+                List<WebElement> elements = webDriver.findElements(byElement);
+                if (elements.isEmpty()) {
+                    return null;
+                }
+                WebElement element = elements.get(0);
+                return element.isDisplayed() && element.isEnabled() ? element : null;
+            } catch (StaleElementReferenceException e) {
+                return null;
+            }
+        };
+    }
+
     /**
      * Validates the input parameters for the getElement method.
      * Ensures that the locator and value are not null or empty.
@@ -75,6 +371,20 @@ public class GetElements {
         assertThat(value).withFailMessage("Value cannot be null or empty.").isNotNull().isNotEmpty();
     }
 
+    /**
+     * Gets the wait mode from -Dwait.mode (default polling, also when it is set empty).
+     *
+     * @return The wait mode.
+     */
+    private static WaitModes getWaitMode() {
+        String value = System.getProperty("wait.mode", "polling").trim();
+        if (value.isEmpty()) {
+            return WaitModes.Polling;
+        }
+        String valueCapitalised = value.substring(0, 1).toUpperCase() + value.substring(1).toLowerCase();
+        return WaitModes.valueOf(valueCapitalised);
+    }
+
     /**
      * Gets the By object based on the specified locator and value.
      * Converts the Locators enum to the corresponding By object.
@@ -83,7 +393,7 @@ public class GetElements {
      * @param value   The value of the locator.
      * @return The By object representing the locator.
      */
-    private By getByElement(Locators locator, String value) {
+    public static By getByElement(Locators locator, String value) {
         switch (locator) {
             case ClassName:
                 return By.className(value);
@@ -0,0 +1,113 @@
+package helpers;
+
+/**
+ * JsLocators class - holds the JavaScript used to locate and check elements inside the browser,
+ * so that a lookup and its readiness check, or a whole wait, cost a single WebDriver command.
+ * The locator strategies mirror the {@link enums.Locators} enum and are passed by name.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public final class JsLocators {
+
+    /**
+     * Function expression that returns the first element matching a locator strategy and value, or null.
+     */
+    public static final String FIND_FUNCTION =
+            "function (strategy, value) {"
+                    + "  function byLinkText(partial) {"
+                    + "    var links = document.getElementsByTagName('a');"
+                    + "    for (var i = 0; i < links.length; i++) {"
+                    + "      var text = (links[i].innerText || links[i].textContent || '').trim();"
+                    + "      if (partial ? text.indexOf(value) !== -1 : text === value) { return links[i]; }"
+                    + "    }"
+                    + "    return null;"
+                    + "  }"
+                    + "  switch (strategy) {"
+                    + "    case 'ClassName': return document.getElementsByClassName(value)[0] || null;"
+                    + "    case 'CssSelector': return document.querySelector(value);"
+                    + "    case 'Id': return document.getElementById(value);"
+                    + "    case 'LinkText': return byLinkText(false);"
+                    + "    case 'Name': return document.getElementsByName(value)[0] || null;"
+                    + "    case 'PartialLink': return byLinkText(true);"
+                    + "    case 'TagName': return document.getElementsByTagName(value)[0] || null;"
+                    + "    case 'Xpath': return document.evaluate(value, document, null,"
+                    + "        XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+                    + "    default: throw new Error('Unsupported locator type: ' + strategy);"
+                    + "  }"
+                    + "}";
+
+    /**
+     * Function expression that tells whether an element is visible and enabled, i.e. clickable.
+     */
+    public static final String READY_FUNCTION =
+            "function (element) {"
+                    + "  if (!element || !element.isConnected || element.disabled) { return false; }"
+                    + "  var style = window.getComputedStyle(element);"
+                    + "  return style.visibility !== 'hidden' && style.display !== 'none'"
+                    + "      && style.opacity !== '0' && element.getClientRects().length > 0;"
+                    + "}";
+
+    /**
+     * Script that returns the element for arguments[0] (strategy) and arguments[1] (value)
+     * when it is present, visible and enabled, and null otherwise.
+     */
+    public static final String FIND_READY_ELEMENT_SCRIPT =
+            "var find = " + FIND_FUNCTION + ";"
+                    + "var isReady = " + READY_FUNCTION + ";"
+                    + "var element = find(arguments[0], arguments[1]);"
+                    + "return isReady(element) ? element : null;";
+
+    /**
+     * Result of {@link #OBSERVE_READY_ELEMENT_SCRIPT} when the browser has no MutationObserver.
+     */
+    public static final String OBSERVER_UNSUPPORTED = "unsupported";
+
+    /**
+     * Async script that waits inside the browser for the element for arguments[0] (strategy) and
+     * arguments[1] (value) to be present, visible and enabled, for at most arguments[2] milliseconds.
+     * A MutationObserver re-checks the element whenever the DOM changes, as do the end of the page load,
+     * CSS transitions and animations; a slow timer covers layout changes none of these report.
+     * Calls back with the element, null on timeout, {@link #OBSERVER_UNSUPPORTED}, or {error: message}
+     * when the locator itself fails, e.g. an invalid XPath. The watcher goes away with the document,
+     * so a navigation ends the script and the caller installs it again on the new page.
+     */
+    public static final String OBSERVE_READY_ELEMENT_SCRIPT =
+            "var find = " + FIND_FUNCTION + ";"
+                    + "var isReady = " + READY_FUNCTION + ";"
+                    + "var strategy = arguments[0], value = arguments[1], timeout = arguments[2];"
+                    + "var done = arguments[arguments.length - 1];"
+                    + "if (typeof MutationObserver === 'undefined') { done('" + OBSERVER_UNSUPPORTED + "'); return; }"
+                    + "var finished = false, observer, timer, recheck;"
+                    + "function finish(result) {"
+                    + "  if (finished) { return; }"
+                    + "  finished = true;"
+                    + "  if (observer) { observer.disconnect(); }"
+                    + "  clearTimeout(timer);"
+                    + "  clearInterval(recheck);"
+                    + "  window.removeEventListener('load', check);"
+                    + "  document.removeEventListener('transitionend', check, true);"
+                    + "  document.removeEventListener('animationend', check, true);"
+                    + "  done(result);"
+                    + "}"
+                    + "function check() {"
+                    + "  try {"
+                    + "    var element = find(strategy, value);"
+                    + "    if (isReady(element)) { finish(element); }"
+                    + "  } catch (e) {"
+                    + "    finish({error: String(e && e.message || e)});"
+                    + "  }"
+                    + "}"
+                    + "check();"
+                    + "if (finished) { return; }"
+                    + "observer = new MutationObserver(check);"
+                    + "observer.observe(document, {childList: true, subtree: true, attributes: true});"
+                    + "window.addEventListener('load', check);"
+                    + "document.addEventListener('transitionend', check, true);"
+                    + "document.addEventListener('animationend', check, true);"
+                    + "recheck = setInterval(check, 250);"
+                    + "timer = setTimeout(function () { finish(null); }, timeout);";
+
+    // Private constructor to prevent instantiation
+    private JsLocators() {
+    }
+}
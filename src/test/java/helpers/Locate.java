@@ -0,0 +1,53 @@
+package helpers;
+
+import enums.Locators;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Locate annotation - declares the locator of a page object accessor, so that all elements of
+ * the page can be resolved together with {@link PageElements} in a single script call.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Locate {
+
+    /**
+     * The type of locator (e.g., ID, XPath, etc.).
+     *
+     * @return The locator strategy.
+     */
+    Locators locator();
+
+    /**
+     * The value of the locator.
+     *
+     * @return The locator value.
+     */
+    String value();
+
+    /**
+     * Whether the element may legitimately be absent, such as a cookie banner. Absent optional
+     * elements are still reported as missing, but do not make the page incomplete.
+     *
+     * @return true if the element is optional.
+     */
+    boolean optional() default false;
+
+    /**
+     * Whether the element is only shown after an action on the page, such as the error of a failed
+     * login. It is not expected when the page is resolved, so its absence does not make the page
+     * incomplete, but once asked for it must appear and is waited for with the full timeout, unlike
+     * an optional element.
+     *
+     * @return true if the element appears after an action.
+     */
+    boolean afterAction() default false;
+}
@@ -0,0 +1,128 @@
+package helpers;
+
+import metrics.Metrics;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.FluentWait;
+
+import java.net.URI;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Navigator class - navigates to a URL, or follows a navigation an action started, and waits for the
+ * readiness condition of the target page.
+ * Combined with the eager or none page-load strategy, navigation returns as soon as the page is
+ * usable rather than when every sub-resource has loaded. The time to readiness is returned so
+ * that it can be recorded for each navigation, and is kept in the metrics by page path, so the same
+ * page shares one series across environments and the random port of the local server.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public class Navigator {
+
+    private static final Duration READINESS_TIMEOUT = Duration.ofSeconds(Long.getLong("navigation.timeoutSeconds", 30));
+    private static final Duration READINESS_POLLING = Duration.ofMillis(50);
+
+    // Private constructor to prevent instantiation
+    private Navigator() {
+    }
+
+    /**
+     * Navigates to a URL and waits until the page is ready.
+     *
+     * @param driver    The WebDriver instance.
+     * @param url       The URL to navigate to.
+     * @param readiness The readiness condition of the target page.
+     * @return The time from the start of the navigation until the page was ready.
+     */
+    public static Duration navigateTo(WebDriver driver, String url, PageReadiness readiness) {
+        long start = System.nanoTime();
+        driver.navigate().to(url);
+        if (!waitUntilReady(driver, readiness, READINESS_TIMEOUT)) {
+            assertThat(false)
+                    .withFailMessage("Error: Page %s was not ready within %s seconds.", url, READINESS_TIMEOUT.getSeconds())
+                    .isTrue();
+        }
+        long elapsed = System.nanoTime() - start;
+        Metrics.record(Metrics.NAVIGATION_READY, getPagePath(url), elapsed);
+        return Duration.ofNanos(elapsed);
+    }
+
+    /**
+     * Waits until the page an action navigated to, e.g. by submitting a form, is ready. With the eager
+     * or none page-load strategy a click returns before the browser has left the page, so checks of
+     * the new page have to wait for its readiness first.
+     *
+     * @param driver    The WebDriver instance.
+     * @param page      The name of the expected page, for the failure message.
+     * @param readiness The readiness condition of the expected page.
+     * @return The time from the call until the page was ready.
+     */
+    public static Duration awaitPage(WebDriver driver, String page, PageReadiness readiness) {
+        Duration timeToReady = awaitPage(driver, readiness, READINESS_TIMEOUT);
+        if (timeToReady == null) {
+            assertThat(false)
+                    .withFailMessage("Error: Page %s was not ready within %s seconds, the browser is on %s.",
+                            page, READINESS_TIMEOUT.getSeconds(), driver.getCurrentUrl())
+                    .isTrue();
+        }
+        return timeToReady;
+    }
+
+    /**
+     * Waits at most the given time until the page an action navigated to is ready.
+     *
+     * @param driver    The WebDriver instance.
+     * @param readiness The readiness condition of the expected page.
+     * @param timeout   How long to wait.
+     * @return The time from the call until the page was ready, or null if it was not ready in time.
+     */
+    public static Duration awaitPage(WebDriver driver, PageReadiness readiness, Duration timeout) {
+        long start = System.nanoTime();
+        if (!waitUntilReady(driver, readiness, timeout)) {
+            return null;
+        }
+        long elapsed = System.nanoTime() - start;
+        Metrics.record(Metrics.NAVIGATION_READY, getPagePath(driver.getCurrentUrl()), elapsed);
+        return Duration.ofNanos(elapsed);
+    }
+
+    /**
+     * Polls a readiness condition.
+     *
+     * @param driver    The WebDriver instance.
+     * @param readiness The readiness condition.
+     * @param timeout   How long to wait.
+     * @return true if the page became ready in time.
+     */
+    private static boolean waitUntilReady(WebDriver driver, PageReadiness readiness, Duration timeout) {
+        try {
+            new FluentWait<>(driver)
+                    .withTimeout(timeout)
+                    .pollingEvery(READINESS_POLLING)
+                    .ignoring(WebDriverException.class)
+                    .until(readiness::isReady);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gets the path of a URL without scheme, host, port, query and fragment, e.g. "/Dashboard.aspx".
+     *
+     * @param url The URL.
+     * @return The path, "/" for the root, or the URL itself if it cannot be parsed.
+     */
+    private static String getPagePath(String url) {
+        try {
+            String path = URI.create(url).getPath();
+            return path == null || path.isEmpty() ? "/" : path;
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package helpers;
+
+import metrics.Metrics;
+import metrics.TraceRecorder;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PageElements class - the locators a page object declares with {@link Locate} on its accessors,
+ * resolved all at once: one script call looks every locator up and checks it is visible and enabled,
+ * instead of one wait per element. The lookup does not wait, so it belongs after the page's
+ * readiness check has passed; elements that are not ready yet are reported as missing.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public final class PageElements {
+
+    private static final String FIND_ALL_SCRIPT =
+            "var find = " + JsLocators.FIND_FUNCTION + ";"
+                    + "var isReady = " + JsLocators.READY_FUNCTION + ";"
+                    + "var locators = arguments[0];"
+                    + "var elements = [];"
+                    + "for (var i = 0; i < locators.length; i++) {"
+                    + "  try {"
+                    + "    var element = find(locators[i][0], locators[i][1]);"
+                    + "    elements.push(isReady(element) ? element : null);"
+                    + "  } catch (e) {"
+                    + "    elements.push(null);"
+                    + "  }"
+                    + "}"
+                    + "return {url: window.location.href, elements: elements};";
+
+    // Declared locators per page object class, read once
+    private static final Map<Class<?>, PageElements> DECLARED = new ConcurrentHashMap<>();
+
+    private final String page;
+
+    // Declared locators by accessor name, in name order
+    private final Map<String, Locate> locators;
+
+    private PageElements(String page, Map<String, Locate> locators) {
+        this.page = page;
+        this.locators = locators;
+    }
+
+    /**
+     * Gets the locators a page object class declares on its accessors.
+     *
+     * @param pageClass The page object class.
+     * @return The declared locators.
+     * @throws IllegalArgumentException if the class declares no locators.
+     */
+    public static PageElements of(Class<?> pageClass) {
+        return DECLARED.computeIfAbsent(pageClass, PageElements::readDeclared);
+    }
+
+    /**
+     * Gets the declared locators.
+     *
+     * @return The locators by accessor name.
+     */
+    public Map<String, Locate> getLocators() {
+        return locators;
+    }
+
+    /**
+     * Resolves all declared elements with a single script call, or with one findElements call per
+     * locator when the driver cannot execute JavaScript.
+     *
+     * @param driver The driver showing the page.
+     * @return The elements found and the names of the ones that are missing.
+     */
+    public Result resolve(WebDriver driver) {
+        long start = System.nanoTime();
+        try {
+            if (driver instanceof JavascriptExecutor) {
+                return resolveWithScript((JavascriptExecutor) driver);
+            }
+            return resolveWithFindElements(driver);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Metrics.record(Metrics.ELEMENT_WAIT, page + ":*", elapsed);
+            TraceRecorder.record(page + ":*", TraceRecorder.WAIT, start, elapsed);
+        }
+    }
+
+    /**
+     * Resolves all declared elements in the browser.
+     *
+     * @param driver The driver showing the page.
+     * @return The elements found and the names of the ones that are missing.
+     */
+    private Result resolveWithScript(JavascriptExecutor driver) {
+        List<List<String>> arguments = new ArrayList<>();
+        for (Locate locate : locators.values()) {
+            List<String> pair = new ArrayList<>();
+            pair.add(locate.locator().name());
+            pair.add(locate.value());
+            arguments.add(pair);
+        }
+        Map<?, ?> response = (Map<?, ?>) driver.executeScript(FIND_ALL_SCRIPT, arguments);
+        List<?> elements = (List<?>) response.get("elements");
+
+        Result result = new Result(String.valueOf(response.get("url")));
+        int index = 0;
+        for (Map.Entry<String, Locate> entry : locators.entrySet()) {
+            Object element = elements.get(index++);
+            result.add(entry.getKey(), entry.getValue(), element instanceof WebElement ? (WebElement) element : null);
+        }
+        return result;
+    }
+
+    /**
+     * Resolves the declared elements one locator at a time.
+     *
+     * @param driver The driver showing the page.
+     * @return The elements found and the names of the ones that are missing.
+     */
+    private Result resolveWithFindElements(WebDriver driver) {
+        Result result = new Result(driver.getCurrentUrl());
+        for (Map.Entry<String, Locate> entry : locators.entrySet()) {
+            Locate locate = entry.getValue();
+            WebElement ready = null;
+            try {
+                for (WebElement element : driver.findElements(GetElements.getByElement(locate.locator(), locate.value()))) {
+                    ready = element.isDisplayed() && element.isEnabled() ? element : null;
+                    break;
+                }
+            } catch (StaleElementReferenceException e) {
+                ready = null;
+            }
+            result.add(entry.getKey(), locate, ready);
+        }
+        return result;
+    }
+
+    /**
+     * Reads the {@link Locate} annotations of a page object class.
+     *
+     * @param pageClass The page object class.
+     * @return The declared locators.
+     */
+    private static PageElements readDeclared(Class<?> pageClass) {
+        Map<String, Locate> declared = new TreeMap<>();
+        for (Method method : pageClass.getMethods()) {
+            Locate locate = method.getAnnotation(Locate.class);
+            if (locate != null) {
+                declared.put(method.getName(), locate);
+            }
+        }
+        if (declared.isEmpty()) {
+            throw new IllegalArgumentException(pageClass.getName() + " declares no @Locate accessors.");
+        }
+        return new PageElements(pageClass.getSimpleName(), Collections.unmodifiableMap(new LinkedHashMap<>(declared)));
+    }
+
+    /**
+     * The outcome of resolving the declared elements of a page.
+     */
+    public static final class Result {
+
+        private final String url;
+        private final Map<String, WebElement> elements = new LinkedHashMap<>();
+        private final List<String> missing = new ArrayList<>();
+        private boolean complete = true;
+
+        private Result(String url) {
+            this.url = url;
+        }
+
+        private void add(String name, Locate locate, WebElement element) {
+            if (element != null) {
+                elements.put(name, element);
+            } else {
+                missing.add(name);
+                complete &= locate.optional() || locate.afterAction();
+            }
+        }
+
+        /**
+         * Gets the URL of the page the elements were resolved on.
+         *
+         * @return The page URL.
+         */
+        public String getUrl() {
+            return url;
+        }
+
+        /**
+         * Gets the elements that were found, visible and enabled.
+         *
+         * @return The elements by accessor name.
+         */
+        public Map<String, WebElement> getElements() {
+            return Collections.unmodifiableMap(elements);
+        }
+
+        /**
+         * Gets the accessors whose element is absent or not ready.
+         *
+         * @return The accessor names.
+         */
+        public List<String> getMissing() {
+            return Collections.unmodifiableList(missing);
+        }
+
+        /**
+         * Indicates whether every element that is neither optional nor shown after an action was found.
+         *
+         * @return true if no required element is missing.
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("found=%s missing=%s", elements.keySet(), missing);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package helpers;
+
+import enums.Locators;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * PageReadiness interface - a readiness condition that a page object provides, so that a
+ * navigation can return as soon as the page is usable instead of waiting for every sub-resource.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+@FunctionalInterface
+public interface PageReadiness {
+
+    /**
+     * Checks whether the page is ready to be used.
+     *
+     * @param driver The WebDriver instance showing the page.
+     * @return true if the page is ready.
+     */
+    boolean isReady(WebDriver driver);
+
+    /**
+     * Readiness condition "the document is interactive and the given element is present",
+     * checked with a single script call when the driver can execute JavaScript.
+     *
+     * @param locator The type of locator of the element.
+     * @param value   The value of the locator.
+     * @return The readiness condition.
+     */
+    static PageReadiness interactiveWithElement(Locators locator, String value) {
+        String script = "return document.readyState !== 'loading'"
+                + " && (" + JsLocators.FIND_FUNCTION + ")(arguments[0], arguments[1]) !== null;";
+        return driver -> {
+            if (driver instanceof JavascriptExecutor) {
+                return Boolean.TRUE.equals(((JavascriptExecutor) driver).executeScript(script, locator.name(), value));
+            }
+            return !driver.findElements(GetElements.getByElement(locator, value)).isEmpty();
+        };
+    }
+
+    /**
+     * Readiness condition "the document is interactive and its URL contains the given text", for
+     * pages reached by an action, such as the page a form submit lands on.
+     *
+     * @param urlPart Text the URL of the page contains, e.g. "Dashboard".
+     * @return The readiness condition.
+     */
+    static PageReadiness interactiveAtUrl(String urlPart) {
+        String script = "return document.readyState !== 'loading' && window.location.href.indexOf(arguments[0]) !== -1;";
+        return driver -> {
+            if (driver instanceof JavascriptExecutor) {
+                return Boolean.TRUE.equals(((JavascriptExecutor) driver).executeScript(script, urlPart));
+            }
+            return driver.getCurrentUrl().contains(urlPart);
+        };
+    }
+}
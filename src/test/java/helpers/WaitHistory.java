@@ -0,0 +1,219 @@
+package helpers;
+
+import enums.Targets;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+import org.openqa.selenium.json.TypeToken;
+import testBase.Environment;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * WaitHistory class - keeps the observed wait times of every page and locator, per -Dtarget, across runs, in
+ * -Dwait.historyFile (default target/wait-history.json), and derives a timeout from them: the p99 of the
+ * last -Dwait.historySize waits times -Dwait.marginFactor plus -Dwait.marginMs, at least -Dwait.minTimeoutMs
+ * and never more than the default timeout. The factor keeps slow locators from failing on a bad day;
+ * the margin and minimum cover locators that are usually ready at once. Until a locator has
+ * -Dwait.minSamples waits on record the default timeout is used. The history is loaded on
+ * first use and saved when the JVM shuts down; adaptive timeouts can be switched off with -Dwait.adaptive=false.
+ * Waits are kept apart per target, so the few milliseconds the local server takes never shorten the
+ * timeouts of a run against the live environment.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public class WaitHistory {
+
+    private static final Type HISTORY_TYPE = new TypeToken<Map<String, List<Long>>>() { }.getType();
+
+    // Singleton instance of WaitHistory
+    private static final WaitHistory instance = new WaitHistory();
+
+    private final Path file;
+    private final boolean adaptive;
+    private final int historySize;
+    private final int minSamples;
+    private final double marginFactor;
+    private final Duration margin;
+    private final Duration minTimeout;
+    private final Json json = new Json();
+
+    // Recent wait times in milliseconds by target, page and locator
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    // Private constructor to prevent instantiation
+    private WaitHistory() {
+        this.file = Paths.get(System.getProperty("wait.historyFile", "target/wait-history.json")).toAbsolutePath();
+        this.adaptive = !"false".equalsIgnoreCase(System.getProperty("wait.adaptive"));
+        this.historySize = Math.max(1, Integer.getInteger("wait.historySize", 200));
+        this.minSamples = Math.max(1, Integer.getInteger("wait.minSamples", 20));
+        this.marginFactor = Math.max(1, Double.parseDouble(System.getProperty("wait.marginFactor", "3")));
+        this.margin = Duration.ofMillis(Long.getLong("wait.marginMs", 1000));
+        this.minTimeout = Duration.ofMillis(Long.getLong("wait.minTimeoutMs", 2000));
+        load();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::save, "wait-history-shutdown"));
+    }
+
+    /**
+     * Provides the global point of access to the Singleton instance of WaitHistory.
+     *
+     * @return The Singleton instance of WaitHistory.
+     */
+    public static WaitHistory getInstance() {
+        return instance;
+    }
+
+    /**
+     * Builds the history key of a locator on a page of the current target.
+     *
+     * @param page    The page, e.g. the page object name.
+     * @param locator The locator, e.g. "Xpath://input[@type='submit']".
+     * @return The history key, e.g. "Live|LoginPage|Xpath://input[@type='submit']".
+     */
+    public static String getKey(String page, String locator) {
+        return Environment.getTarget() + "|" + page + "|" + locator;
+    }
+
+    /**
+     * Records the time a wait took until the element was ready.
+     *
+     * @param key   The history key of the locator.
+     * @param nanos The wait time in nanoseconds.
+     */
+    public void record(String key, long nanos) {
+        samples.computeIfAbsent(key, k -> new Samples(historySize)).add(nanos / 1_000_000);
+    }
+
+    /**
+     * Gets the timeout for a wait: the p99 of the recorded waits times the margin factor plus the
+     * margin, between the minimum timeout and the given default.
+     *
+     * @param key      The history key of the locator.
+     * @param fallback The default timeout, used while there is too little history.
+     * @return The timeout.
+     */
+    public Duration getTimeout(String key, Duration fallback) {
+        Samples recorded = samples.get(key);
+        if (!adaptive || recorded == null || recorded.size() < minSamples) {
+            return fallback;
+        }
+        Duration learned = Duration.ofMillis((long) (recorded.getPercentile(0.99) * marginFactor)).plus(margin);
+        if (learned.compareTo(minTimeout) < 0) {
+            return minTimeout.compareTo(fallback) < 0 ? minTimeout : fallback;
+        }
+        return learned.compareTo(fallback) < 0 ? learned : fallback;
+    }
+
+    /**
+     * Loads the history file, if there is one.
+     */
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            Map<String, List<Long>> stored = json.toType(new String(Files.readAllBytes(file), StandardCharsets.UTF_8), HISTORY_TYPE);
+            stored.forEach((key, millis) -> {
+                if (!hasTarget(key)) {
+                    // Recorded before waits were kept per target; it may hold local waits
+                    return;
+                }
+                Samples loaded = new Samples(historySize);
+                millis.forEach(loaded::add);
+                samples.put(key, loaded);
+            });
+        } catch (IOException | JsonException | ClassCastException e) {
+            System.err.println("Ignoring unreadable wait history " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Checks whether a stored key starts with a target.
+     *
+     * @param key The history key.
+     * @return True when the key was built for a target.
+     */
+    private static boolean hasTarget(String key) {
+        for (Targets target : Targets.values()) {
+            if (key.startsWith(target + "|")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Saves the history, replacing the file in one move so parallel JVMs never read half a file.
+     */
+    private void save() {
+        if (samples.isEmpty()) {
+            return;
+        }
+        Map<String, List<Long>> stored = new TreeMap<>();
+        samples.forEach((key, recorded) -> stored.put(key, recorded.toList()));
+        Path temporary = file.resolveSibling(file.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(temporary, json.toJson(stored).getBytes(StandardCharsets.UTF_8));
+            try {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            System.err.println("Error saving wait history " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * The most recent wait times of one locator, oldest overwritten first.
+     */
+    private static class Samples {
+
+        private final long[] millis;
+        private int next;
+        private int size;
+
+        private Samples(int capacity) {
+            this.millis = new long[capacity];
+        }
+
+        private synchronized void add(long value) {
+            millis[next] = value;
+            next = (next + 1) % millis.length;
+            size = Math.min(size + 1, millis.length);
+        }
+
+        private synchronized int size() {
+            return size;
+        }
+
+        private synchronized long getPercentile(double percentile) {
+            long[] sorted = Arrays.copyOf(millis, size);
+            Arrays.sort(sorted);
+            return sorted[Math.min(size - 1, (int) Math.ceil(percentile * size) - 1)];
+        }
+
+        private synchronized List<Long> toList() {
+            List<Long> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(millis[(next - size + i + millis.length) % millis.length]);
+            }
+            return list;
+        }
+    }
+}
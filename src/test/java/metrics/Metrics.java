@@ -0,0 +1,202 @@
+package metrics;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Metrics class - registry of the latency histograms of the test run, one per metric and label
+ * (e.g. WebDriver command latency by command type, element wait time by locator, step duration by step).
+ * At the end of the run the histograms are written as a Prometheus text file and a JSON summary
+ * with count, p50, p95, p99 and max.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public class Metrics {
+
+    /**
+     * Latency of every WebDriver command, labelled by command type.
+     */
+    public static final String WEBDRIVER_COMMAND = "webdriver_command";
+
+    /**
+     * Time spent waiting for elements in GetElements, labelled by locator.
+     */
+    public static final String ELEMENT_WAIT = "element_wait";
+
+    /**
+     * Duration of each step, labelled by step text.
+     */
+    public static final String STEP = "step";
+
+    /**
+     * Time from the start of a navigation until the page was ready, labelled by page path (the URL without
+     * scheme, host and port).
+     */
+    public static final String NAVIGATION_READY = "navigation_ready";
+
+    /**
+     * Time the @Before hook waited for a driver, labelled by where the driver came from
+     * (prewarmed, pooled or created).
+     */
+    public static final String DRIVER_WAIT = "driver_wait";
+
+    // Histograms by metric name, then by label value
+    private static final ConcurrentMap<String, ConcurrentMap<String, LatencyHistogram>> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    // Private constructor to prevent instantiation
+    private Metrics() {
+    }
+
+    /**
+     * Records one latency. Safe to call from any thread.
+     *
+     * @param metric The metric name, e.g. {@link #WEBDRIVER_COMMAND}.
+     * @param label  The label value, e.g. the command type.
+     * @param nanos  The latency in nanoseconds.
+     */
+    public static void record(String metric, String label, long nanos) {
+        HISTOGRAMS.computeIfAbsent(metric, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(label, key -> new LatencyHistogram())
+                .record(nanos);
+    }
+
+    /**
+     * Gets the histogram of a metric and label.
+     *
+     * @param metric The metric name.
+     * @param label  The label value.
+     * @return The histogram, or null if nothing was recorded for it.
+     */
+    public static LatencyHistogram getHistogram(String metric, String label) {
+        Map<String, LatencyHistogram> histograms = HISTOGRAMS.get(metric);
+        return histograms == null ? null : histograms.get(label);
+    }
+
+    /**
+     * Writes metrics.prom (Prometheus text format, one summary per metric) and summary.json.
+     *
+     * @param directory The directory to write the reports to.
+     * @throws IOException If a report cannot be written.
+     */
+    public static void writeReports(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        try (Writer writer = Files.newBufferedWriter(directory.resolve("metrics.prom"), StandardCharsets.UTF_8)) {
+            writePrometheus(writer);
+        }
+        Files.write(directory.resolve("summary.json"), new Json().toJson(getSummary()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes all histograms in Prometheus text format.
+     *
+     * @param writer The writer to write to.
+     * @throws IOException If writing fails.
+     */
+    private static void writePrometheus(Writer writer) throws IOException {
+        for (Map.Entry<String, Map<String, LatencyHistogram>> metric : getSortedHistograms().entrySet()) {
+            String name = "cucumber_" + metric.getKey() + "_seconds";
+            String labelName = getLabelName(metric.getKey());
+            writer.write("# TYPE " + name + " summary\n");
+            for (Map.Entry<String, LatencyHistogram> entry : metric.getValue().entrySet()) {
+                String label = labelName + "=\"" + escape(entry.getKey()) + "\"";
+                LatencyHistogram histogram = entry.getValue();
+                for (double quantile : new double[]{0.5, 0.95, 0.99}) {
+                    writer.write(String.format(Locale.ROOT, "%s{%s,quantile=\"%s\"} %.6f%n",
+                            name, label, quantile, histogram.getPercentileSeconds(quantile * 100)));
+                }
+                writer.write(String.format(Locale.ROOT, "%s_sum{%s} %.6f%n", name, label, histogram.getSumSeconds()));
+                writer.write(String.format(Locale.ROOT, "%s_count{%s} %d%n", name, label, histogram.getCount()));
+            }
+        }
+    }
+
+    /**
+     * Builds the JSON summary: metric, then label, then count and percentiles in milliseconds.
+     *
+     * @return The summary.
+     */
+    private static Map<String, Object> getSummary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, LatencyHistogram>> metric : getSortedHistograms().entrySet()) {
+            Map<String, Object> labels = new LinkedHashMap<>();
+            for (Map.Entry<String, LatencyHistogram> entry : metric.getValue().entrySet()) {
+                LatencyHistogram histogram = entry.getValue();
+                Map<String, Object> values = new LinkedHashMap<>();
+                values.put("count", histogram.getCount());
+                values.put("p50_ms", toMillis(histogram.getPercentileSeconds(50)));
+                values.put("p95_ms", toMillis(histogram.getPercentileSeconds(95)));
+                values.put("p99_ms", toMillis(histogram.getPercentileSeconds(99)));
+                values.put("max_ms", toMillis(histogram.getMaxSeconds()));
+                values.put("total_ms", toMillis(histogram.getSumSeconds()));
+                labels.put(entry.getKey(), values);
+            }
+            summary.put(metric.getKey(), labels);
+        }
+        return summary;
+    }
+
+    /**
+     * @return A sorted copy of the histograms, so that reports are stable between runs.
+     */
+    private static Map<String, Map<String, LatencyHistogram>> getSortedHistograms() {
+        Map<String, Map<String, LatencyHistogram>> sorted = new TreeMap<>();
+        for (Map.Entry<String, ConcurrentMap<String, LatencyHistogram>> metric : HISTOGRAMS.entrySet()) {
+            sorted.put(metric.getKey(), new TreeMap<>(metric.getValue()));
+        }
+        return sorted;
+    }
+
+    /**
+     * Gets the Prometheus label name of a metric.
+     *
+     * @param metric The metric name.
+     * @return The label name.
+     */
+    private static String getLabelName(String metric) {
+        switch (metric) {
+            case WEBDRIVER_COMMAND:
+                return "command";
+            case ELEMENT_WAIT:
+                return "locator";
+            case STEP:
+                return "step";
+            case NAVIGATION_READY:
+                return "page";
+            case DRIVER_WAIT:
+                return "source";
+            default:
+                return "label";
+        }
+    }
+
+    /**
+     * Escapes a label value for the Prometheus text format.
+     *
+     * @param value The label value.
+     * @return The escaped value.
+     */
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * Converts seconds to milliseconds rounded to three decimals.
+     *
+     * @param seconds The value in seconds.
+     * @return The value in milliseconds.
+     */
+    private static double toMillis(double seconds) {
+        return Math.round(seconds * 1_000_000) / 1000.0;
+    }
+}
@@ -0,0 +1,64 @@
+package metrics;
+
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * MetricsListener class - WebDriver listener that records the latency of every call made through
+ * a decorated driver (and the elements, navigation and options objects it returns), labelled by
+ * command type such as "WebDriver.findElement" or "WebElement.click". Each call is also added to the
+ * trace of the current scenario as a driver command span.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public class MetricsListener implements WebDriverListener {
+
+    // Start times of the calls in progress on the current thread
+    private final ThreadLocal<Deque<Long>> startTimes = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        startTimes.get().push(System.nanoTime());
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        recordCall(method);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        recordCall(method);
+    }
+
+    /**
+     * Records the latency of the call that has just finished on the current thread.
+     *
+     * @param method The method that was called.
+     */
+    private void recordCall(Method method) {
+        Deque<Long> starts = startTimes.get();
+        if (starts.isEmpty()) {
+            return;
+        }
+        long start = starts.pop();
+        long elapsed = System.nanoTime() - start;
+        String commandType = getCommandType(method);
+        Metrics.record(Metrics.WEBDRIVER_COMMAND, commandType, elapsed);
+        TraceRecorder.record(commandType, TraceRecorder.DRIVER, start, elapsed);
+    }
+
+    /**
+     * Gets the command type of a call, e.g. "WebDriver.findElement".
+     *
+     * @param method The method that was called.
+     * @return The command type.
+     */
+    static String getCommandType(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+}
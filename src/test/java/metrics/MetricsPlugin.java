@@ -0,0 +1,84 @@
+package metrics;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStepFinished;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * MetricsPlugin class - Cucumber plugin that records the duration of every step by step text
+ * and writes the metrics reports when the test run finishes. Steps and hooks are also added to the
+ * trace of the running scenario as step spans; step events arrive on the thread running the step.
+ * The trace of a scenario is finished when the scenario has finished, after its last hook was added.
+ * Register it with "metrics.MetricsPlugin:target/metrics" in the CucumberOptions plugins.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public class MetricsPlugin implements ConcurrentEventListener {
+
+    private final Path outputDirectory;
+
+    /**
+     * Constructor for the MetricsPlugin class.
+     *
+     * @param outputDirectory The directory the metrics reports are written to.
+     */
+    public MetricsPlugin(String outputDirectory) {
+        this.outputDirectory = Paths.get(outputDirectory);
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestStepFinished.class, this::handleTestStepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::handleTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, this::handleTestRunFinished);
+    }
+
+    /**
+     * Records the duration of a Gherkin step, labelled by the step definition pattern, and adds
+     * the step or hook to the trace of the scenario.
+     *
+     * @param event The step finished event.
+     */
+    private void handleTestStepFinished(TestStepFinished event) {
+        long elapsed = event.getResult().getDuration().toNanos();
+        long start = System.nanoTime() - elapsed;
+        if (event.getTestStep() instanceof PickleStepTestStep) {
+            PickleStepTestStep step = (PickleStepTestStep) event.getTestStep();
+            Metrics.record(Metrics.STEP, step.getPattern(), elapsed);
+            TraceRecorder.record(step.getStep().getKeyword() + step.getStep().getText(), TraceRecorder.STEP, start, elapsed);
+        } else if (event.getTestStep() instanceof HookTestStep) {
+            HookTestStep hook = (HookTestStep) event.getTestStep();
+            TraceRecorder.record(hook.getHookType() + " " + event.getTestStep().getCodeLocation(), TraceRecorder.STEP, start, elapsed);
+        }
+    }
+
+    /**
+     * Hands the trace of the finished scenario to the trace writer.
+     *
+     * @param event The test case finished event.
+     */
+    private void handleTestCaseFinished(TestCaseFinished event) {
+        TraceRecorder.finishScenario();
+    }
+
+    /**
+     * Writes the metrics reports.
+     *
+     * @param event The test run finished event.
+     */
+    private void handleTestRunFinished(TestRunFinished event) {
+        try {
+            Metrics.writeReports(outputDirectory);
+        } catch (IOException e) {
+            System.err.println("Error writing metrics reports: " + e.getMessage());
+        }
+    }
+}
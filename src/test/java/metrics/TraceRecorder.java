@@ -0,0 +1,347 @@
+package metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TraceRecorder class - records a timeline of each scenario (scenario, step, action, wait and
+ * driver command spans) and writes it as one Chrome trace-event JSON file per scenario, which
+ * opens in Perfetto or chrome://tracing with one track per thread.
+ * Events go into a bounded ring buffer of the scenario; when the buffer is full the oldest events
+ * are overwritten. Threads doing work for the scenario, e.g. the tasks of a ScenarioExecutor, join
+ * its trace with {@link #bind(ScenarioTrace)}. When the scenario has finished, after its last hook,
+ * the buffer is handed to a background writer, so the scenario thread never waits for disk.
+ * Tracing is enabled with -Dtrace=true.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public class TraceRecorder {
+
+    /**
+     * Span category of a scenario.
+     */
+    public static final String SCENARIO = "scenario";
+
+    /**
+     * Span category of a Gherkin step.
+     */
+    public static final String STEP = "step";
+
+    /**
+     * Span category of a page action.
+     */
+    public static final String ACTION = "action";
+
+    /**
+     * Span category of an element or page wait.
+     */
+    public static final String WAIT = "wait";
+
+    /**
+     * Span category of a WebDriver command.
+     */
+    public static final String DRIVER = "driver";
+
+    private static final boolean ENABLED = Boolean.getBoolean("trace");
+    private static final int BUFFER_SIZE = Integer.getInteger("trace.bufferSize", 16384);
+    private static final Path OUTPUT_DIRECTORY = Paths.get(System.getProperty("trace.dir", "target/traces"));
+    private static final Span NO_SPAN = () -> { };
+
+    // Trace of the scenario running on the current thread
+    private static final ThreadLocal<ScenarioTrace> CURRENT = new ThreadLocal<>();
+
+    // Background writer with a bounded queue; when it is full the scenario thread writes the file itself
+    private static final ThreadPoolExecutor WRITER = createWriter();
+
+    // Private constructor to prevent instantiation
+    private TraceRecorder() {
+    }
+
+    /**
+     * A span that ends when it is closed, for use with try-with-resources.
+     */
+    public interface Span extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * A binding of a trace to a thread, undone on close.
+     */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Indicates whether tracing is enabled (-Dtrace=true).
+     *
+     * @return true if tracing is enabled.
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Starts the trace of a scenario on the current thread and opens its scenario span. A trace
+     * the previous scenario of the thread left open is finished first.
+     *
+     * @param name     The scenario name.
+     * @param fileName The name of the trace file, without extension.
+     */
+    public static void startScenario(String name, String fileName) {
+        if (!ENABLED) {
+            return;
+        }
+        finishScenario();
+        ScenarioTrace trace = new ScenarioTrace(name, fileName.replaceAll("[^A-Za-z0-9._-]", "_"), BUFFER_SIZE);
+        CURRENT.set(trace);
+    }
+
+    /**
+     * Ends the trace of the scenario on the current thread and hands it to the background writer.
+     */
+    public static void finishScenario() {
+        ScenarioTrace trace = CURRENT.get();
+        if (trace == null) {
+            return;
+        }
+        CURRENT.remove();
+        trace.finish();
+        WRITER.execute(() -> write(trace));
+    }
+
+    /**
+     * Gets the trace of the scenario running on the current thread, to hand it to the threads
+     * that work for the scenario.
+     *
+     * @return The trace, or null when no scenario is being traced.
+     */
+    public static ScenarioTrace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds a scenario trace to the current thread until the returned scope is closed, which
+     * restores the trace that was bound before, so the spans of work done for the scenario on
+     * this thread go into its trace.
+     *
+     * @param trace The trace, or null to leave the current thread as it is.
+     * @return The scope of the binding.
+     */
+    public static Scope bind(ScenarioTrace trace) {
+        ScenarioTrace previous = CURRENT.get();
+        if (trace == null || trace == previous) {
+            return () -> { };
+        }
+        CURRENT.set(trace);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Opens a span on the current thread. Returns a no-op span when no scenario is being traced.
+     *
+     * @param name     The span name.
+     * @param category The span category, e.g. {@link #ACTION}.
+     * @return The span, to be closed when the traced work ends.
+     */
+    public static Span begin(String name, String category) {
+        ScenarioTrace trace = CURRENT.get();
+        if (trace == null) {
+            return NO_SPAN;
+        }
+        long start = System.nanoTime();
+        return () -> trace.add(name, category, start, System.nanoTime() - start);
+    }
+
+    /**
+     * Records a span that has already finished on the current thread.
+     *
+     * @param name        The span name.
+     * @param category    The span category, e.g. {@link #DRIVER}.
+     * @param startNanos  The start time from System.nanoTime().
+     * @param elapsedNanos The duration in nanoseconds.
+     */
+    public static void record(String name, String category, long startNanos, long elapsedNanos) {
+        ScenarioTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.add(name, category, startNanos, elapsedNanos);
+        }
+    }
+
+    /**
+     * Writes a finished scenario trace as a trace-event JSON file.
+     *
+     * @param trace The finished trace.
+     */
+    private static void write(ScenarioTrace trace) {
+        try {
+            Files.createDirectories(OUTPUT_DIRECTORY);
+            try (Writer writer = Files.newBufferedWriter(OUTPUT_DIRECTORY.resolve(trace.fileName + ".json"), StandardCharsets.UTF_8)) {
+                trace.writeTo(writer);
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing trace " + trace.fileName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Creates the single background writer thread and drains it when the JVM shuts down.
+     *
+     * @return The writer executor.
+     */
+    private static ThreadPoolExecutor createWriter() {
+        ThreadPoolExecutor writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Integer.getInteger("trace.writerQueueSize", 32)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "trace-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            writer.shutdown();
+            try {
+                writer.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "trace-writer-shutdown"));
+        return writer;
+    }
+
+    /**
+     * Escapes a string for JSON.
+     *
+     * @param value The string.
+     * @return The escaped string, without quotes.
+     */
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    escaped.append("\\\"");
+                    break;
+                case '\\':
+                    escaped.append("\\\\");
+                    break;
+                case '\n':
+                    escaped.append("\\n");
+                    break;
+                case '\r':
+                    escaped.append("\\r");
+                    break;
+                case '\t':
+                    escaped.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+            }
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * The ring buffer of one scenario. Written by the scenario thread and the threads bound to it
+     * until the scenario finishes, then handed to the writer; events added after that are ignored.
+     */
+    public static final class ScenarioTrace {
+        private final String name;
+        private final String fileName;
+        private final long threadId;
+        private final String threadName;
+        private final long start;
+        private long end;
+
+        private final String[] names;
+        private final String[] categories;
+        private final long[] threadIds;
+        private final long[] starts;
+        private final long[] durations;
+        private long recorded;
+
+        // Names of the other threads that added events, by thread id
+        private final Map<Long, String> otherThreads = new LinkedHashMap<>();
+
+        private ScenarioTrace(String name, String fileName, int capacity) {
+            this.name = name;
+            this.fileName = fileName;
+            this.threadId = Thread.currentThread().getId();
+            this.threadName = Thread.currentThread().getName();
+            this.start = System.nanoTime();
+            this.names = new String[capacity];
+            this.categories = new String[capacity];
+            this.threadIds = new long[capacity];
+            this.starts = new long[capacity];
+            this.durations = new long[capacity];
+        }
+
+        private synchronized void add(String eventName, String category, long startNanos, long elapsedNanos) {
+            if (end != 0) {
+                return;
+            }
+            Thread thread = Thread.currentThread();
+            if (thread.getId() != threadId) {
+                otherThreads.putIfAbsent(thread.getId(), thread.getName());
+            }
+            int slot = (int) (recorded % names.length);
+            names[slot] = eventName;
+            categories[slot] = category;
+            threadIds[slot] = thread.getId();
+            starts[slot] = startNanos;
+            durations[slot] = elapsedNanos;
+            recorded++;
+        }
+
+        private synchronized void finish() {
+            end = System.nanoTime();
+        }
+
+        private synchronized void writeTo(Writer writer) throws IOException {
+            long kept = Math.min(recorded, names.length);
+            long dropped = recorded - kept;
+            writer.write("{\"displayTimeUnit\":\"ms\",\"otherData\":{\"scenario\":\"" + escape(name)
+                    + "\",\"droppedEvents\":" + dropped + "},\"traceEvents\":[\n");
+            writer.write("{\"ph\":\"M\",\"name\":\"thread_name\",\"pid\":1,\"tid\":" + threadId
+                    + ",\"args\":{\"name\":\"" + escape(threadName) + "\"}}");
+            for (Map.Entry<Long, String> thread : otherThreads.entrySet()) {
+                writer.write(",\n{\"ph\":\"M\",\"name\":\"thread_name\",\"pid\":1,\"tid\":" + thread.getKey()
+                        + ",\"args\":{\"name\":\"" + escape(thread.getValue()) + "\"}}");
+            }
+            writeEvent(writer, threadId, name, SCENARIO, start, end - start);
+            for (long i = recorded - kept; i < recorded; i++) {
+                int slot = (int) (i % names.length);
+                writeEvent(writer, threadIds[slot], names[slot], categories[slot], starts[slot], durations[slot]);
+            }
+            writer.write("\n]}\n");
+        }
+
+        private void writeEvent(Writer writer, long tid, String eventName, String category, long startNanos,
+                                long elapsedNanos) throws IOException {
+            writer.write(",\n{\"ph\":\"X\",\"pid\":1,\"tid\":" + tid
+                    + ",\"name\":\"" + escape(eventName) + "\",\"cat\":\"" + category
+                    + "\",\"ts\":" + TimeUnit.NANOSECONDS.toMicros(startNanos)
+                    + ",\"dur\":" + Math.max(1, TimeUnit.NANOSECONDS.toMicros(elapsedNanos)) + "}");
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package pages;
+
+import helpers.PageReadiness;
+
+/**
+ * Page object model for the DashboardPage, the page a successful login lands on.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public class DashboardPage {
+
+    // Part of the URL of the dashboard
+    public static final String URL_PART = "Dashboard";
+
+    // Private constructor to prevent instantiation
+    private DashboardPage() {
+    }
+
+    /**
+     * Readiness condition of the dashboard: the document is interactive and the browser is on the dashboard URL.
+     *
+     * @return The readiness condition of the dashboard.
+     */
+    public static PageReadiness readiness() {
+        return PageReadiness.interactiveAtUrl(URL_PART);
+    }
+}
@@ -1,34 +1,80 @@
 package pages;
 
 import enums.Locators;
+import helpers.ElementCache;
 import helpers.GetElements;
+import helpers.Locate;
+import helpers.PageElements;
+import helpers.PageReadiness;
 import org.openqa.selenium.WebElement;
 
 /**
  * Page object model for the LoginPage.
  * This class provides methods to retrieve the web elements on the login page.
+ * Resolved elements are cached for the lifetime of the page object and re-resolved when they go stale.
+ * The accessors declare their locators with {@link Locate} and resolve by them, so the whole page can be resolved at once with {@link #hydrate()}.
  * Author: Rob Thomson
  * Date: 06/06/2024
  */
 public class LoginPage {
 
+    // XPath locators of the login page elements, also used by batched interactions
+    public static final String ACCEPT_COOKIES_BUTTON = "//a[text()='Accept All']";
+    public static final String EMAIL_ADDRESS_FIELD = "//input[@placeholder='email address']";
+    public static final String PASSWORD_FIELD = "//input[@placeholder='password']";
+    public static final String LOGIN_BUTTON = "//input[@type='submit']";
+    public static final String LOGIN_ERROR_ALERT = "//div[@role='alert']";
+
     private final GetElements element;
+    private final ElementCache cache;
 
     /**
      * Constructor for the LoginPage class.
-     * Initializes the GetElements helper.
+     * Initializes the GetElements helper and the page-scoped element cache.
      */
     public LoginPage() {
-        this.element = new GetElements();
+        this.element = new GetElements(LoginPage.class.getSimpleName());
+        this.cache = new ElementCache(element);
+    }
+
+    /**
+     * Readiness condition of the login page: the document is interactive and the email address field is present.
+     *
+     * @return The readiness condition of the login page.
+     */
+    public static PageReadiness readiness() {
+        return PageReadiness.interactiveWithElement(Locators.Xpath, EMAIL_ADDRESS_FIELD);
     }
 
     /**
-     * Retrieves the "Accept Cookies" button element.
+     * Resolves every element of the login page with a single script call and caches the ones that
+     * are shown, so the accessors return them without waiting. Call it once the page is ready.
      *
-     * @return The web element for the "Accept Cookies" button.
+     * @return The elements found and the names of the ones that are missing.
      */
+    public PageElements.Result hydrate() {
+        return cache.hydrate(PageElements.of(LoginPage.class));
+    }
+
+    /**
+     * Resolves the element of an accessor by the locator declared on it with {@link Locate}.
+     *
+     * @param accessor The name of the accessor.
+     * @return The web element, or null if the element is not found.
+     */
+    private WebElement locate(String accessor) {
+        return cache.getDeclared(PageElements.of(LoginPage.class), accessor);
+    }
+
+    /**
+     * Retrieves the "Accept Cookies" button element. The cookie banner is not always shown, so
+     * the lookup gives up quickly instead of waiting out the full timeout.
+     *
+     * @return The web element for the "Accept Cookies" button, or null if the banner is not shown.
+     */
+    @Locate(locator = Locators.Xpath, value = ACCEPT_COOKIES_BUTTON, optional = true)
     public WebElement acceptCookiesButton() {
-        return element.getElement(Locators.Xpath, "//a[text()='Accept All']");
+        return locate("acceptCookiesButton");
     }
 
     /**
@@ -36,8 +82,9 @@ public class LoginPage {
      *
      * @return The web element for the email address field.
      */
+    @Locate(locator = Locators.Xpath, value = EMAIL_ADDRESS_FIELD)
     public WebElement emailAddressField() {
-        return element.getElement(Locators.Xpath, "//input[@placeholder='email address']");
+        return locate("emailAddressField");
     }
 
     /**
@@ -45,8 +92,9 @@ public class LoginPage {
      *
      * @return The web element for the password field.
      */
+    @Locate(locator = Locators.Xpath, value = PASSWORD_FIELD)
     public WebElement passwordField() {
-        return element.getElement(Locators.Xpath, "//input[@placeholder='password']");
+        return locate("passwordField");
     }
 
     /**
@@ -54,11 +102,19 @@ public class LoginPage {
      *
      * @return The web element for the login button.
      */
+    @Locate(locator = Locators.Xpath, value = LOGIN_BUTTON)
     public WebElement loginButton() {
-        return element.getElement(Locators.Xpath, "//input[@type='submit']");
+        return locate("loginButton");
     }
 
-    public WebElement loginErrorMessage(){
-        return element.getElement(Locators.Xpath, "//div[@role='alert']");
+    /**
+     * Retrieves the login error alert. It is only shown after a failed login, so it is waited for
+     * with the full timeout, which covers the round trip of the login form.
+     *
+     * @return The web element for the login error alert.
+     */
+    @Locate(locator = Locators.Xpath, value = LOGIN_ERROR_ALERT, afterAction = true)
+    public WebElement loginErrorMessage() {
+        return locate("loginErrorMessage");
     }
 }
@@ -0,0 +1,368 @@
+package reporting;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ReportBuilder class - builds the HTML report and the run summary from a stream of report events,
+ * either live from the {@link StreamingReportPlugin} or replayed from events.ndjson files. Each
+ * scenario is appended to index.html as soon as it finishes; only the scenarios that are still
+ * running are held in memory. summary.json and progress.html are rewritten every
+ * -Dreport.progressIntervalMs while a live run is going and once more at the end. progress.html
+ * reloads itself until the run has finished, so it can be left open as a live progress view.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public class ReportBuilder implements Closeable {
+
+    // Event types of the event log
+    public static final String TEST_RUN_STARTED = "testRunStarted";
+    public static final String TEST_CASE_STARTED = "testCaseStarted";
+    public static final String TEST_STEP_FINISHED = "testStepFinished";
+    public static final String ATTACHMENT = "attachment";
+    public static final String TEST_CASE_FINISHED = "testCaseFinished";
+    public static final String TEST_RUN_FINISHED = "testRunFinished";
+
+    // Names of the report files in the report directory
+    public static final String HTML_FILE = "index.html";
+    public static final String SUMMARY_FILE = "summary.json";
+    public static final String PROGRESS_FILE = "progress.html";
+
+    private static final String STYLE = "<style>"
+            + "body{font-family:sans-serif;margin:2em}"
+            + "details{border:1px solid #ddd;border-left:6px solid #999;margin:4px 0;padding:4px 8px}"
+            + "details.passed{border-left-color:#4caf50}details.failed{border-left-color:#e53935}"
+            + "details.skipped,details.pending,details.undefined{border-left-color:#fbc02d}"
+            + "summary{cursor:pointer}.location,.duration{color:#777;margin-left:1em}"
+            + "li.failed{color:#e53935}li.skipped{color:#999}"
+            + "pre{background:#f6f6f6;padding:6px;overflow-x:auto;white-space:pre-wrap}"
+            + "img.screenshot{display:block;max-width:480px;border:1px solid #ddd;margin:4px 0}"
+            + "table{border-collapse:collapse}td,th{border:1px solid #ddd;padding:2px 8px;text-align:left}"
+            + "</style>";
+
+    private final Path outputDirectory;
+    private final boolean live;
+    private final long progressIntervalMillis;
+    private final Json json = new Json();
+    private final Writer html;
+    private final RunSummary summary = new RunSummary();
+
+    // Scenarios that have started and not finished yet, by test case id
+    private final Map<String, ScenarioEntry> running = new HashMap<>();
+
+    private long lastProgressMillis;
+    private boolean closed;
+
+    /**
+     * Constructor for the ReportBuilder class. Starts a new index.html in the output directory.
+     *
+     * @param outputDirectory The report directory.
+     * @param live            Whether the events arrive live, in which case progress is also printed to the console.
+     * @throws IOException If the report cannot be created.
+     */
+    public ReportBuilder(Path outputDirectory, boolean live) throws IOException {
+        this.outputDirectory = outputDirectory;
+        this.live = live;
+        this.progressIntervalMillis = Long.getLong("report.progressIntervalMs", 5000);
+        Files.createDirectories(outputDirectory);
+        this.html = new BufferedWriter(Files.newBufferedWriter(outputDirectory.resolve(HTML_FILE), StandardCharsets.UTF_8));
+        html.write("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>Test report</title>" + STYLE
+                + "</head><body><h1>Test report</h1><p><a href=\"" + PROGRESS_FILE + "\">Progress</a> | <a href=\""
+                + SUMMARY_FILE + "\">Summary</a></p>\n");
+    }
+
+    /**
+     * Adds an event to the report.
+     *
+     * @param event The event, as written to the event log.
+     * @throws IOException If the report cannot be written.
+     */
+    public void accept(Map<String, Object> event) throws IOException {
+        String type = String.valueOf(event.get("type"));
+        long timestamp = getLong(event, "timestamp");
+        switch (type) {
+            case TEST_RUN_STARTED:
+                summary.runStarted(timestamp);
+                break;
+            case TEST_CASE_STARTED:
+                ScenarioEntry entry = new ScenarioEntry(event);
+                running.put(entry.id, entry);
+                summary.scenarioStarted(entry.id, entry.name, entry.location, String.valueOf(event.get("thread")), timestamp);
+                break;
+            case TEST_STEP_FINISHED:
+                ScenarioEntry stepScenario = running.get(String.valueOf(event.get("testCaseId")));
+                if (stepScenario != null) {
+                    stepScenario.addStep(event);
+                }
+                break;
+            case ATTACHMENT:
+                ScenarioEntry attachmentScenario = running.get(String.valueOf(event.get("testCaseId")));
+                if (attachmentScenario != null) {
+                    attachmentScenario.addAttachment(event);
+                }
+                break;
+            case TEST_CASE_FINISHED:
+                finishScenario(event, timestamp);
+                break;
+            case TEST_RUN_FINISHED:
+                summary.runFinished(timestamp);
+                break;
+            default:
+                break;
+        }
+        if (live && System.currentTimeMillis() - lastProgressMillis >= progressIntervalMillis) {
+            lastProgressMillis = System.currentTimeMillis();
+            writeProgress(false);
+            System.out.println("Progress: " + summary.describe());
+        }
+    }
+
+    /**
+     * Finishes index.html with the summary and writes the final summary.json and progress.html.
+     *
+     * @throws IOException If the report cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            html.write("<h2>Summary</h2>" + summaryTable() + "</body></html>\n");
+        } finally {
+            html.close();
+        }
+        writeProgress(true);
+    }
+
+    /**
+     * Appends a finished scenario to index.html and counts it in the summary.
+     *
+     * @param event     The test case finished event.
+     * @param timestamp When the scenario finished.
+     * @throws IOException If the report cannot be written.
+     */
+    private void finishScenario(Map<String, Object> event, long timestamp) throws IOException {
+        String id = String.valueOf(event.get("id"));
+        ScenarioEntry entry = running.remove(id);
+        if (entry == null) {
+            entry = new ScenarioEntry(event);
+        }
+        String status = String.valueOf(event.get("status"));
+        long durationNanos = getLong(event, "durationNanos");
+        summary.scenarioFinished(id, entry.name, entry.location, status, durationNanos, entry.error, timestamp);
+
+        html.write("<details class=\"" + escape(status) + "\"" + ("failed".equals(status) ? " open" : "") + "><summary>"
+                + "<b>" + escape(status.toUpperCase()) + "</b> " + escape(entry.name)
+                + "<span class=\"location\">" + escape(entry.location) + "</span>"
+                + "<span class=\"duration\">" + formatSeconds(durationNanos) + "</span></summary>"
+                + "<ol>" + entry.content + "</ol></details>\n");
+        html.flush();
+    }
+
+    /**
+     * Writes summary.json and progress.html, each replaced in one move so readers never see half a file.
+     *
+     * @param finished Whether the run has finished; until then progress.html reloads itself.
+     * @throws IOException If a file cannot be written.
+     */
+    private void writeProgress(boolean finished) throws IOException {
+        replace(outputDirectory.resolve(SUMMARY_FILE), json.toJson(summary.toMap()));
+        Map<String, Object> progress = summary.toMap();
+        StringBuilder page = new StringBuilder("<!DOCTYPE html><html><head><meta charset=\"utf-8\">");
+        if (!finished) {
+            page.append("<meta http-equiv=\"refresh\" content=\"")
+                    .append(Math.max(1, progressIntervalMillis / 1000)).append("\">");
+        }
+        page.append("<title>Test progress</title>").append(STYLE).append("</head><body><h1>")
+                .append(finished ? "Run finished" : "Run in progress").append("</h1><p>")
+                .append(escape(summary.describe())).append("</p>").append(summaryTable());
+
+        List<?> runningNow = (List<?>) progress.get("running");
+        if (!runningNow.isEmpty()) {
+            page.append("<h2>Running</h2><table><tr><th>Scenario</th><th>Location</th><th>Thread</th><th>Running for</th></tr>");
+            for (Object scenario : runningNow) {
+                Map<?, ?> values = (Map<?, ?>) scenario;
+                page.append("<tr><td>").append(escape(String.valueOf(values.get("name"))))
+                        .append("</td><td>").append(escape(String.valueOf(values.get("location"))))
+                        .append("</td><td>").append(escape(String.valueOf(values.get("thread"))))
+                        .append("</td><td>").append(formatSeconds(((Number) values.get("runningMillis")).longValue() * 1_000_000))
+                        .append("</td></tr>");
+            }
+            page.append("</table>");
+        }
+        page.append("<p><a href=\"").append(HTML_FILE).append("\">Full report</a></p></body></html>\n");
+        replace(outputDirectory.resolve(PROGRESS_FILE), page.toString());
+    }
+
+    /**
+     * Builds the summary table: scenarios by status, the failures and the slowest scenarios.
+     *
+     * @return The HTML of the table.
+     */
+    private String summaryTable() {
+        Map<String, Object> values = summary.toMap();
+        StringBuilder table = new StringBuilder("<table><tr><th>Status</th><th>Scenarios</th></tr>");
+        ((Map<?, ?>) values.get("statuses")).forEach((status, count) ->
+                table.append("<tr><td>").append(escape(String.valueOf(status))).append("</td><td>").append(count).append("</td></tr>"));
+        table.append("</table>");
+        appendScenarios(table, "Failures", (List<?>) values.get("failures"));
+        appendScenarios(table, "Slowest scenarios", (List<?>) values.get("slowest"));
+        return table.toString();
+    }
+
+    /**
+     * Appends a list of scenarios to the summary.
+     *
+     * @param table     The summary being built.
+     * @param title     The title of the list.
+     * @param scenarios The scenarios, as in summary.json.
+     */
+    private static void appendScenarios(StringBuilder table, String title, List<?> scenarios) {
+        if (scenarios.isEmpty()) {
+            return;
+        }
+        table.append("<h3>").append(title).append("</h3><table><tr><th>Scenario</th><th>Location</th><th>Duration</th></tr>");
+        for (Object scenario : scenarios) {
+            Map<?, ?> values = (Map<?, ?>) scenario;
+            table.append("<tr><td>").append(escape(String.valueOf(values.get("name"))))
+                    .append("</td><td>").append(escape(String.valueOf(values.get("location"))))
+                    .append("</td><td>").append(formatSeconds(((Number) values.get("durationNanos")).longValue()))
+                    .append("</td></tr>");
+        }
+        table.append("</table>");
+    }
+
+    /**
+     * Replaces a file with new content through a temporary file.
+     *
+     * @param file    The file.
+     * @param content The new content.
+     * @throws IOException If the file cannot be written.
+     */
+    private static void replace(Path file, String content) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temporary, content.getBytes(StandardCharsets.UTF_8));
+        try {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Gets a number of an event.
+     *
+     * @param event The event.
+     * @param key   The key of the number.
+     * @return The number, or 0 if the event has none.
+     */
+    static long getLong(Map<?, ?> event, String key) {
+        Object value = event.get(key);
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    /**
+     * Formats a duration in seconds.
+     *
+     * @param nanos The duration in nanoseconds.
+     * @return The duration, e.g. "1.25 s".
+     */
+    private static String formatSeconds(long nanos) {
+        return String.format("%.2f s", nanos / 1e9);
+    }
+
+    /**
+     * Escapes text for HTML.
+     *
+     * @param text The text.
+     * @return The escaped text.
+     */
+    static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    /**
+     * A scenario that has started: its steps and attachments as HTML, and its first error.
+     */
+    private static class ScenarioEntry {
+
+        private final String id;
+        private final String name;
+        private final String location;
+        private final StringBuilder content = new StringBuilder();
+        private String error;
+
+        private ScenarioEntry(Map<String, Object> event) {
+            this.id = String.valueOf(event.get("id"));
+            this.name = String.valueOf(event.get("name"));
+            String uri = String.valueOf(event.get("uri"));
+            this.location = (uri.startsWith("file:") ? uri.substring("file:".length()) : uri) + ":" + getLong(event, "line");
+        }
+
+        /**
+         * Adds a step, or a hook when it did not pass.
+         *
+         * @param event The step finished event.
+         */
+        private void addStep(Map<String, Object> event) {
+            String status = String.valueOf(event.get("status"));
+            if (Boolean.TRUE.equals(event.get("hook")) && "passed".equals(status)) {
+                return;
+            }
+            content.append("<li class=\"").append(escape(status)).append("\">")
+                    .append(escape(String.valueOf(event.get("step"))))
+                    .append("<span class=\"duration\">").append(formatSeconds(getLong(event, "durationNanos"))).append("</span>");
+            Object stepError = event.get("error");
+            if (stepError != null) {
+                if (error == null) {
+                    error = String.valueOf(stepError).split("\n")[0];
+                }
+                content.append("<pre>").append(escape(String.valueOf(stepError))).append("</pre>");
+            }
+            content.append("</li>");
+        }
+
+        /**
+         * Adds an attachment: links as links, with linked PNG screenshots shown inline, log lines and
+         * other text as text, binary data as a link to its file.
+         *
+         * @param event The attachment event.
+         */
+        private void addAttachment(Map<String, Object> event) {
+            String mediaType = String.valueOf(event.get("mediaType"));
+            String label = event.get("name") != null ? String.valueOf(event.get("name")) : mediaType;
+            Object body = event.get("body");
+            content.append("<li class=\"attachment\">");
+            if (event.get("path") != null) {
+                content.append("<a href=\"").append(escape(String.valueOf(event.get("path")))).append("\">")
+                        .append(escape(label)).append("</a>");
+            } else if ("text/uri-list".equals(mediaType)) {
+                for (String uri : String.valueOf(body).split("\\r?\\n")) {
+                    content.append("<a href=\"").append(escape(uri)).append("\">").append(escape(label));
+                    if (uri.endsWith(".png")) {
+                        // The writer may still be busy with it; the browser shows it once it is on disk
+                        content.append("<img class=\"screenshot\" loading=\"lazy\" src=\"").append(escape(uri)).append("\" alt=\"\">");
+                    }
+                    content.append("</a> ");
+                }
+            } else {
+                content.append("<pre>").append(escape(String.valueOf(body))).append("</pre>");
+            }
+            content.append("</li>");
+        }
+    }
+}
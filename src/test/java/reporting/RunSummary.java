@@ -0,0 +1,153 @@
+package reporting;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * RunSummary class - running totals of a test run for the summary and the progress view: scenarios
+ * by status, the first failures, the slowest scenarios and the scenarios running right now. The
+ * lists are capped, so the summary stays the same size however many scenarios the run has.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+class RunSummary {
+
+    private static final int MAX_FAILURES = 50;
+    private static final int MAX_SLOWEST = 10;
+
+    private final Map<String, Long> statuses = new TreeMap<>();
+    private final List<Map<String, Object>> failures = new ArrayList<>();
+    private final PriorityQueue<Map<String, Object>> slowest =
+            new PriorityQueue<>(Comparator.comparingLong(scenario -> ReportBuilder.getLong(scenario, "durationNanos")));
+    private final Map<String, Map<String, Object>> running = new LinkedHashMap<>();
+
+    private long finishedCount;
+    private long failedCount;
+    private long totalNanos;
+    private long startedAt;
+    private long lastEventAt;
+    private long finishedAt;
+
+    /**
+     * Records the start of the run. When shard reports are merged the earliest start counts.
+     *
+     * @param timestamp The start time in epoch milliseconds.
+     */
+    void runStarted(long timestamp) {
+        if (startedAt == 0 || timestamp < startedAt) {
+            startedAt = timestamp;
+        }
+        lastEventAt = Math.max(lastEventAt, timestamp);
+    }
+
+    /**
+     * Records the start of a scenario.
+     *
+     * @param id        The test case id.
+     * @param name      The scenario name.
+     * @param location  The feature file and line.
+     * @param thread    The worker thread running the scenario.
+     * @param timestamp The start time in epoch milliseconds.
+     */
+    void scenarioStarted(String id, String name, String location, String thread, long timestamp) {
+        Map<String, Object> scenario = new LinkedHashMap<>();
+        scenario.put("name", name);
+        scenario.put("location", location);
+        scenario.put("thread", thread);
+        scenario.put("startedAt", timestamp);
+        running.put(id, scenario);
+        lastEventAt = Math.max(lastEventAt, timestamp);
+    }
+
+    /**
+     * Records the result of a scenario.
+     *
+     * @param id            The test case id.
+     * @param name          The scenario name.
+     * @param location      The feature file and line.
+     * @param status        The status, e.g. "passed".
+     * @param durationNanos The duration of the scenario.
+     * @param error         The first line of the error, or null.
+     * @param timestamp     The finish time in epoch milliseconds.
+     */
+    void scenarioFinished(String id, String name, String location, String status, long durationNanos, String error, long timestamp) {
+        running.remove(id);
+        statuses.merge(status, 1L, Long::sum);
+        finishedCount++;
+        totalNanos += durationNanos;
+        lastEventAt = Math.max(lastEventAt, timestamp);
+
+        Map<String, Object> scenario = new LinkedHashMap<>();
+        scenario.put("name", name);
+        scenario.put("location", location);
+        scenario.put("durationNanos", durationNanos);
+        if ("failed".equals(status)) {
+            failedCount++;
+            if (failures.size() < MAX_FAILURES) {
+                Map<String, Object> failure = new LinkedHashMap<>(scenario);
+                failure.put("error", error);
+                failures.add(failure);
+            }
+        }
+        slowest.add(scenario);
+        if (slowest.size() > MAX_SLOWEST) {
+            slowest.poll();
+        }
+    }
+
+    /**
+     * Records the end of the run. When shard reports are merged the latest end counts.
+     *
+     * @param timestamp The end time in epoch milliseconds.
+     */
+    void runFinished(long timestamp) {
+        finishedAt = Math.max(finishedAt, timestamp);
+        lastEventAt = Math.max(lastEventAt, timestamp);
+    }
+
+    /**
+     * Describes the progress in one line, e.g. for the console.
+     *
+     * @return The progress.
+     */
+    String describe() {
+        long elapsedMillis = Math.max(1, lastEventAt - startedAt);
+        return String.format("%d scenarios finished %s, %d failed, %d running, %.1f scenarios/min after %d s",
+                finishedCount, statuses, failedCount, running.size(),
+                finishedCount * 60_000.0 / elapsedMillis, elapsedMillis / 1000);
+    }
+
+    /**
+     * Gets the summary as written to summary.json.
+     *
+     * @return The summary.
+     */
+    Map<String, Object> toMap() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("startedAt", startedAt);
+        summary.put("finishedAt", finishedAt);
+        summary.put("scenarios", finishedCount);
+        summary.put("failed", failedCount);
+        summary.put("statuses", new TreeMap<>(statuses));
+        summary.put("totalDurationNanos", totalNanos);
+        summary.put("failures", new ArrayList<>(failures));
+
+        List<Map<String, Object>> slowestFirst = new ArrayList<>(slowest);
+        slowestFirst.sort(Comparator.comparingLong((Map<String, Object> scenario) -> ReportBuilder.getLong(scenario, "durationNanos")).reversed());
+        summary.put("slowest", slowestFirst);
+
+        List<Map<String, Object>> runningNow = new ArrayList<>();
+        for (Map<String, Object> scenario : running.values()) {
+            Map<String, Object> copy = new LinkedHashMap<>(scenario);
+            copy.put("runningMillis", Math.max(0, lastEventAt - ReportBuilder.getLong(scenario, "startedAt")));
+            runningNow.add(copy);
+        }
+        summary.put("running", runningNow);
+        return summary;
+    }
+}
@@ -0,0 +1,319 @@
+package reporting;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EmbedEvent;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Result;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.WriteEvent;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * StreamingReportPlugin class - Cucumber plugin that writes every event of the run as one line of
+ * NDJSON (events.ndjson) the moment it happens, and feeds the same events to a {@link ReportBuilder}
+ * that appends each finished scenario to the HTML report and keeps a live progress view and summary.
+ * Nothing is held for the whole run, so memory use does not grow with the number of scenarios.
+ * Events arrive on the worker threads as they happen, not in canonical order; they are written one at a time.
+ * Register it with "reporting.StreamingReportPlugin:target/report" in the CucumberOptions plugins.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public class StreamingReportPlugin implements ConcurrentEventListener {
+
+    /**
+     * Name of the event log in the report directory.
+     */
+    public static final String EVENTS_FILE = "events.ndjson";
+
+    /**
+     * Name of the directory in the report directory that holds binary attachments.
+     */
+    public static final String ATTACHMENTS = "attachments";
+
+    // Feature files below the working directory are reported by their relative path, e.g. src/test/resources/...
+    private static final URI WORKING_DIRECTORY = new File("").toURI();
+
+    private final Path outputDirectory;
+    private final Json json = new Json();
+
+    private Writer events;
+    private ReportBuilder report;
+    private int attachmentCount;
+
+    /**
+     * Constructor for the StreamingReportPlugin class.
+     *
+     * @param outputDirectory The directory the event log and the reports are written to.
+     */
+    public StreamingReportPlugin(String outputDirectory) {
+        this.outputDirectory = Paths.get(outputDirectory);
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestRunStarted.class, this::handleTestRunStarted);
+        publisher.registerHandlerFor(TestCaseStarted.class, this::handleTestCaseStarted);
+        publisher.registerHandlerFor(TestStepFinished.class, this::handleTestStepFinished);
+        publisher.registerHandlerFor(EmbedEvent.class, this::handleEmbed);
+        publisher.registerHandlerFor(WriteEvent.class, this::handleWrite);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::handleTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, this::handleTestRunFinished);
+    }
+
+    /**
+     * Opens the event log and the reports.
+     *
+     * @param event The test run started event.
+     */
+    private synchronized void handleTestRunStarted(TestRunStarted event) {
+        try {
+            Files.createDirectories(outputDirectory);
+            events = new BufferedWriter(Files.newBufferedWriter(outputDirectory.resolve(EVENTS_FILE), StandardCharsets.UTF_8));
+            report = new ReportBuilder(outputDirectory, true);
+        } catch (IOException e) {
+            System.err.println("Error opening the streaming report: " + e.getMessage());
+            return;
+        }
+        emit(newEvent(ReportBuilder.TEST_RUN_STARTED, event.getInstant()), true);
+    }
+
+    /**
+     * Records the start of a scenario, with the worker thread that runs it.
+     *
+     * @param event The test case started event.
+     */
+    private void handleTestCaseStarted(TestCaseStarted event) {
+        Map<String, Object> started = newTestCaseEvent(ReportBuilder.TEST_CASE_STARTED, event.getInstant(), event.getTestCase());
+        started.put("thread", Thread.currentThread().getName());
+        emit(started, false);
+    }
+
+    /**
+     * Records the result of a step or hook.
+     *
+     * @param event The step finished event.
+     */
+    private void handleTestStepFinished(TestStepFinished event) {
+        Map<String, Object> finished = newEvent(ReportBuilder.TEST_STEP_FINISHED, event.getInstant());
+        finished.put("testCaseId", event.getTestCase().getId().toString());
+        if (event.getTestStep() instanceof PickleStepTestStep) {
+            PickleStepTestStep step = (PickleStepTestStep) event.getTestStep();
+            finished.put("step", step.getStep().getKeyword() + step.getStep().getText());
+            finished.put("hook", false);
+        } else if (event.getTestStep() instanceof HookTestStep) {
+            finished.put("step", ((HookTestStep) event.getTestStep()).getHookType() + " " + event.getTestStep().getCodeLocation());
+            finished.put("hook", true);
+        }
+        putResult(finished, event.getResult());
+        emit(finished, false);
+    }
+
+    /**
+     * Records an attachment. Text is kept in the event log; binary data is written to its own file
+     * in the attachments directory, so the event log stays small.
+     *
+     * @param event The embed event.
+     */
+    private void handleEmbed(EmbedEvent event) {
+        Map<String, Object> attachment = newEvent(ReportBuilder.ATTACHMENT, event.getInstant());
+        attachment.put("testCaseId", event.getTestCase().getId().toString());
+        attachment.put("mediaType", event.getMediaType());
+        attachment.put("name", event.getName());
+        if ("text/uri-list".equals(event.getMediaType())) {
+            attachment.put("body", relativizeFileUris(new String(event.getData(), StandardCharsets.UTF_8)));
+        } else if (event.getMediaType().startsWith("text/")) {
+            attachment.put("body", new String(event.getData(), StandardCharsets.UTF_8));
+        } else {
+            try {
+                attachment.put("path", writeAttachment(event.getData(), event.getMediaType()));
+            } catch (IOException e) {
+                System.err.println("Error writing attachment " + event.getName() + ": " + e.getMessage());
+                return;
+            }
+        }
+        emit(attachment, false);
+    }
+
+    /**
+     * Turns the file URIs of a link attachment into paths relative to the report directory, so the
+     * links keep working when the build directory is archived or opened on another machine.
+     * Other URIs, and files on another drive, are kept as they are.
+     *
+     * @param uriList The attached URIs, one per line.
+     * @return The URIs with file URIs made relative.
+     */
+    private String relativizeFileUris(String uriList) {
+        StringBuilder relativized = new StringBuilder();
+        for (String uri : uriList.split("\\r?\\n")) {
+            String link = uri;
+            if (uri.startsWith("file:")) {
+                try {
+                    Path file = Paths.get(URI.create(uri));
+                    link = outputDirectory.toAbsolutePath().relativize(file).toString().replace(File.separatorChar, '/');
+                } catch (IllegalArgumentException e) {
+                    // Not a local file, or no relative path to it
+                }
+            }
+            relativized.append(relativized.length() == 0 ? "" : "\n").append(link);
+        }
+        return relativized.toString();
+    }
+
+    /**
+     * Records a line the scenario logged.
+     *
+     * @param event The write event.
+     */
+    private void handleWrite(WriteEvent event) {
+        Map<String, Object> attachment = newEvent(ReportBuilder.ATTACHMENT, event.getInstant());
+        attachment.put("testCaseId", event.getTestCase().getId().toString());
+        attachment.put("mediaType", "text/x.cucumber.log+plain");
+        attachment.put("body", event.getText());
+        emit(attachment, false);
+    }
+
+    /**
+     * Records the result of a scenario. The event carries the location of the scenario, so it is
+     * all the shard planner needs as duration history.
+     *
+     * @param event The test case finished event.
+     */
+    private void handleTestCaseFinished(TestCaseFinished event) {
+        Map<String, Object> finished = newTestCaseEvent(ReportBuilder.TEST_CASE_FINISHED, event.getInstant(), event.getTestCase());
+        putResult(finished, event.getResult());
+        emit(finished, true);
+    }
+
+    /**
+     * Records the end of the run and closes the event log and the reports.
+     *
+     * @param event The test run finished event.
+     */
+    private synchronized void handleTestRunFinished(TestRunFinished event) {
+        emit(newEvent(ReportBuilder.TEST_RUN_FINISHED, event.getInstant()), true);
+        if (events == null) {
+            return;
+        }
+        try {
+            events.close();
+            report.close();
+            System.out.println("Report written to " + outputDirectory.resolve(ReportBuilder.HTML_FILE).toAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("Error closing the streaming report: " + e.getMessage());
+        } finally {
+            events = null;
+        }
+    }
+
+    /**
+     * Writes an event to the event log and passes it on to the report builder.
+     *
+     * @param event The event.
+     * @param flush Whether to flush the event log, at the end of each scenario and of the run.
+     */
+    private synchronized void emit(Map<String, Object> event, boolean flush) {
+        if (events == null) {
+            return;
+        }
+        try {
+            StringBuilder line = new StringBuilder();
+            try (JsonOutput output = json.newOutput(line)) {
+                output.setPrettyPrint(false);
+                output.write(event);
+            }
+            events.write(line.append('\n').toString());
+            if (flush) {
+                events.flush();
+            }
+            report.accept(event);
+        } catch (IOException e) {
+            System.err.println("Error writing the streaming report: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes binary attachment data to its own file.
+     *
+     * @param data      The attachment data.
+     * @param mediaType The media type, e.g. image/png.
+     * @return The path of the file relative to the report directory.
+     * @throws IOException If the file cannot be written.
+     */
+    private synchronized String writeAttachment(byte[] data, String mediaType) throws IOException {
+        String extension = mediaType.substring(mediaType.indexOf('/') + 1).replaceAll("[^A-Za-z0-9]", "");
+        String path = ATTACHMENTS + "/" + (++attachmentCount) + "." + extension;
+        Files.createDirectories(outputDirectory.resolve(ATTACHMENTS));
+        Files.write(outputDirectory.resolve(path), data);
+        return path;
+    }
+
+    /**
+     * Creates an event.
+     *
+     * @param type    The event type.
+     * @param instant When the event happened.
+     * @return The event, to be completed by the caller.
+     */
+    private static Map<String, Object> newEvent(String type, Instant instant) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("type", type);
+        event.put("timestamp", instant.toEpochMilli());
+        return event;
+    }
+
+    /**
+     * Creates an event about a scenario, with its id, name and location.
+     *
+     * @param type     The event type.
+     * @param instant  When the event happened.
+     * @param testCase The scenario.
+     * @return The event, to be completed by the caller.
+     */
+    private static Map<String, Object> newTestCaseEvent(String type, Instant instant, TestCase testCase) {
+        Map<String, Object> event = newEvent(type, instant);
+        event.put("id", testCase.getId().toString());
+        event.put("name", testCase.getName());
+        event.put("uri", WORKING_DIRECTORY.relativize(testCase.getUri()).toString());
+        event.put("line", testCase.getLocation().getLine());
+        return event;
+    }
+
+    /**
+     * Adds the status, duration and error of a result to an event.
+     *
+     * @param event  The event.
+     * @param result The result of a step or scenario.
+     */
+    private static void putResult(Map<String, Object> event, Result result) {
+        event.put("status", result.getStatus().name().toLowerCase());
+        event.put("durationNanos", result.getDuration().toNanos());
+        if (result.getError() != null) {
+            StringWriter stackTrace = new StringWriter();
+            result.getError().printStackTrace(new PrintWriter(stackTrace));
+            event.put("error", stackTrace.toString());
+        }
+    }
+}
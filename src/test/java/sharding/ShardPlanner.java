@@ -0,0 +1,312 @@
+package sharding;
+
+import io.cucumber.gherkin.GherkinParser;
+import io.cucumber.messages.types.Envelope;
+import io.cucumber.messages.types.Examples;
+import io.cucumber.messages.types.FeatureChild;
+import io.cucumber.messages.types.GherkinDocument;
+import io.cucumber.messages.types.Pickle;
+import io.cucumber.messages.types.RuleChild;
+import io.cucumber.messages.types.Scenario;
+import io.cucumber.messages.types.TableRow;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+import reporting.ReportBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * ShardPlanner class - splits the scenarios (pickles) of the feature files into N shards that
+ * finish close together, for runs spread over several JVMs or machines with -Dshard=i/N.
+ * The expected duration of each pickle is read from the event logs of previous runs
+ * and the pickles are assigned longest first to the shard with the least work so far. Pickles
+ * without history are given the mean duration of the known ones; with no history at all every
+ * pickle weighs the same and the split is a deterministic round robin in file and line order.
+ * The plan of shard i is written as a properties file with cucumber.features set to the
+ * feature files and lines of its pickles, which surefire passes on to Cucumber.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public class ShardPlanner {
+
+    // Name filter that matches no scenario, for a shard that gets no pickles
+    private static final String MATCH_NOTHING = "(?!)";
+
+    // Marker of the scenario result events in an event log
+    private static final String FINISHED_EVENT = "\"" + ReportBuilder.TEST_CASE_FINISHED + "\"";
+
+    private final Json json = new Json();
+
+    /**
+     * Plans one shard.
+     *
+     * @param args The shard as i/N (1-based), the feature directory, the history event logs
+     *             (comma separated files or directories) and the properties file to write.
+     * @throws IOException If the feature files cannot be read or the plan cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 4) {
+            throw new IllegalArgumentException("Usage: ShardPlanner <i/N> <featureDirectory> <historyReports> <outputFile>");
+        }
+        String[] shard = args[0].split("/");
+        if (shard.length != 2) {
+            throw new IllegalArgumentException("Shard must be given as i/N, e.g. -Dshard=1/3, but was: " + args[0]);
+        }
+        int index = Integer.parseInt(shard[0].trim());
+        int count = Integer.parseInt(shard[1].trim());
+        if (count < 1 || index < 1 || index > count) {
+            throw new IllegalArgumentException("Shard index must be between 1 and " + count + ": " + args[0]);
+        }
+
+        ShardPlanner planner = new ShardPlanner();
+        List<String> pickles = planner.findPickles(Paths.get(args[1]));
+        Map<String, Long> history = planner.readHistory(args[2]);
+        List<List<String>> shards = planner.assign(pickles, history, count);
+        planner.writePlan(shards.get(index - 1), Paths.get(args[3]));
+
+        System.out.printf("Shard %d/%d: %d of %d pickles, %d with history%n",
+                index, count, shards.get(index - 1).size(), pickles.size(),
+                pickles.stream().filter(history::containsKey).count());
+    }
+
+    /**
+     * Finds every pickle (scenario or example row) of the feature files in a directory.
+     *
+     * @param featureDirectory The feature directory, as given in the CucumberOptions features.
+     * @return The pickles as "path/to/file.feature:line", in file and line order.
+     * @throws IOException If a feature file cannot be read.
+     */
+    public List<String> findPickles(Path featureDirectory) throws IOException {
+        List<Path> featureFiles;
+        try (Stream<Path> files = Files.walk(featureDirectory)) {
+            featureFiles = files.filter(file -> file.toString().endsWith(".feature")).sorted().collect(Collectors.toList());
+        }
+
+        GherkinParser parser = GherkinParser.builder().includeSource(false).build();
+        List<String> pickles = new ArrayList<>();
+        for (Path featureFile : featureFiles) {
+            Map<String, Long> lines = new HashMap<>();
+            List<Pickle> filePickles = new ArrayList<>();
+            try (Stream<Envelope> envelopes = parser.parse(featureFile)) {
+                envelopes.forEach(envelope -> {
+                    envelope.getGherkinDocument().ifPresent(document -> collectLines(document, lines));
+                    envelope.getPickle().ifPresent(filePickles::add);
+                });
+            }
+            String path = featureFile.toString().replace('\\', '/');
+            for (Pickle pickle : filePickles) {
+                // The last AST node of a pickle is its example row, or the scenario itself
+                List<String> nodes = pickle.getAstNodeIds();
+                pickles.add(path + ":" + lines.get(nodes.get(nodes.size() - 1)));
+            }
+        }
+        pickles.sort(Comparator.comparing((String pickle) -> pickle.substring(0, pickle.lastIndexOf(':')))
+                .thenComparingLong(pickle -> Long.parseLong(pickle.substring(pickle.lastIndexOf(':') + 1))));
+        return pickles;
+    }
+
+    /**
+     * Reads the duration of every pickle from the event logs (events.ndjson) of previous runs,
+     * line by line. A pickle that appears in several logs gets its mean duration.
+     *
+     * @param reports Comma separated event logs, or directories that are searched for *.ndjson logs.
+     * @return The mean duration in nanoseconds by "path/to/file.feature:line".
+     * @throws IOException If a report directory cannot be listed.
+     */
+    public Map<String, Long> readHistory(String reports) throws IOException {
+        Map<String, long[]> totals = new HashMap<>();
+        for (Path report : findReports(reports)) {
+            try (BufferedReader reader = Files.newBufferedReader(report, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    // Only the scenario results are needed, the other events are not parsed at all
+                    if (!line.contains(FINISHED_EVENT)) {
+                        continue;
+                    }
+                    Map<String, Object> event = json.toType(line, Json.MAP_TYPE);
+                    if (!ReportBuilder.TEST_CASE_FINISHED.equals(event.get("type"))) {
+                        continue;
+                    }
+                    String pickle = normalizeUri(String.valueOf(event.get("uri"))) + ":" + ((Number) event.get("line")).longValue();
+                    long[] total = totals.computeIfAbsent(pickle, key -> new long[2]);
+                    total[0] += ((Number) event.get("durationNanos")).longValue();
+                    total[1]++;
+                }
+            } catch (IOException | JsonException | ClassCastException | NullPointerException e) {
+                System.err.println("Skipping unreadable event log " + report + ": " + e.getMessage());
+            }
+        }
+        Map<String, Long> history = new HashMap<>();
+        totals.forEach((pickle, total) -> history.put(pickle, total[0] / total[1]));
+        return history;
+    }
+
+    /**
+     * Assigns the pickles to shards, longest expected duration first, each to the shard with the
+     * least expected work so far (ties go to the lowest shard), so the result is deterministic.
+     *
+     * @param pickles The pickles in file and line order.
+     * @param history The known pickle durations in nanoseconds.
+     * @param count   The number of shards.
+     * @return The pickles of each shard, in file and line order.
+     */
+    public List<List<String>> assign(List<String> pickles, Map<String, Long> history, int count) {
+        long defaultNanos = Math.max(1, (long) pickles.stream().filter(history::containsKey)
+                .mapToLong(history::get).average().orElse(1));
+        Map<String, Long> weights = new LinkedHashMap<>();
+        Map<String, Integer> order = new HashMap<>();
+        for (String pickle : pickles) {
+            weights.put(pickle, history.getOrDefault(pickle, defaultNanos));
+            order.putIfAbsent(pickle, order.size());
+        }
+
+        List<String> longestFirst = new ArrayList<>(pickles);
+        // Stable sort, so equal weights keep file and line order
+        longestFirst.sort(Comparator.comparingLong((String pickle) -> weights.get(pickle)).reversed());
+
+        List<List<String>> shards = new ArrayList<>();
+        long[] loads = new long[count];
+        for (int i = 0; i < count; i++) {
+            shards.add(new ArrayList<>());
+        }
+        for (String pickle : longestFirst) {
+            int lightest = 0;
+            for (int i = 1; i < count; i++) {
+                if (loads[i] < loads[lightest]) {
+                    lightest = i;
+                }
+            }
+            shards.get(lightest).add(pickle);
+            loads[lightest] += weights.get(pickle);
+        }
+        for (int i = 0; i < count; i++) {
+            List<String> shard = shards.get(i);
+            shard.sort(Comparator.comparingInt(order::get));
+            System.out.printf("Shard %d/%d: %d pickles, ~%d s expected%n", i + 1, count, shard.size(), loads[i] / 1_000_000_000L);
+        }
+        return shards;
+    }
+
+    /**
+     * Writes the plan of a shard as the Cucumber properties that select its pickles.
+     *
+     * @param pickles The pickles of the shard.
+     * @param file    The properties file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    private void writePlan(List<String> pickles, Path file) throws IOException {
+        Properties properties = new Properties();
+        if (pickles.isEmpty()) {
+            properties.setProperty("cucumber.filter.name", MATCH_NOTHING);
+        } else {
+            // One entry per feature file with all its lines, e.g. path/login.feature:12:19
+            Map<String, StringBuilder> features = new TreeMap<>();
+            for (String pickle : pickles) {
+                int separator = pickle.lastIndexOf(':');
+                features.computeIfAbsent(pickle.substring(0, separator), path -> new StringBuilder(path))
+                        .append(pickle.substring(separator));
+            }
+            properties.setProperty("cucumber.features", String.join(",", features.values()));
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (OutputStream output = Files.newOutputStream(file)) {
+            properties.store(output, "Generated by ShardPlanner");
+        }
+    }
+
+    /**
+     * Collects the line of every scenario and example row of a Gherkin document by AST node id.
+     *
+     * @param document The Gherkin document.
+     * @param lines    The lines by AST node id.
+     */
+    private static void collectLines(GherkinDocument document, Map<String, Long> lines) {
+        document.getFeature().ifPresent(feature -> {
+            for (FeatureChild child : feature.getChildren()) {
+                child.getScenario().ifPresent(scenario -> collectLines(scenario, lines));
+                child.getRule().ifPresent(rule -> {
+                    for (RuleChild ruleChild : rule.getChildren()) {
+                        ruleChild.getScenario().ifPresent(scenario -> collectLines(scenario, lines));
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Collects the line of a scenario and of its example rows by AST node id.
+     *
+     * @param scenario The scenario or scenario outline.
+     * @param lines    The lines by AST node id.
+     */
+    private static void collectLines(Scenario scenario, Map<String, Long> lines) {
+        lines.put(scenario.getId(), scenario.getLocation().getLine());
+        for (Examples examples : scenario.getExamples()) {
+            for (TableRow row : examples.getTableBody()) {
+                lines.put(row.getId(), row.getLocation().getLine());
+            }
+        }
+    }
+
+    /**
+     * Finds the event logs: the given files, plus every *.ndjson file below the given directories.
+     *
+     * @param reports Comma separated event logs or directories.
+     * @return The event logs that exist.
+     * @throws IOException If a directory cannot be listed.
+     */
+    static List<Path> findReports(String reports) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (String entry : reports.split(",")) {
+            if (entry.trim().isEmpty()) {
+                continue;
+            }
+            Path path = Paths.get(entry.trim());
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> found = Files.walk(path)) {
+                    found.filter(file -> file.toString().endsWith(".ndjson")).sorted().forEach(files::add);
+                }
+            } else if (Files.isRegularFile(path)) {
+                files.add(path);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Converts a report URI (e.g. "src/test/resources/featureFiles/login.feature", or an absolute
+     * "file:///..." URI for feature files outside the working directory) to the feature path used in the plan.
+     *
+     * @param uri The feature URI from the report.
+     * @return The feature path.
+     */
+    private static String normalizeUri(String uri) {
+        String path;
+        if (uri.startsWith("file:/")) {
+            path = Paths.get(URI.create(uri)).toString();
+        } else {
+            path = uri.startsWith("file:") ? uri.substring("file:".length()) : uri;
+        }
+        return path.replace('\\', '/');
+    }
+}
@@ -0,0 +1,110 @@
+package sharding;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ShardPlannerTest class - unit tests of how {@link ShardPlanner#assign} splits the pickles over the shards.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public class ShardPlannerTest {
+
+    private final ShardPlanner planner = new ShardPlanner();
+
+    @Test
+    public void splitsRoundRobinInFileAndLineOrderWithoutHistory() {
+        List<String> pickles = pickles("a", "b", "c", "d", "e", "f", "g");
+
+        List<List<String>> shards = planner.assign(pickles, Collections.emptyMap(), 3);
+
+        assertThat(shards).containsExactly(
+                pickles("a", "d", "g"),
+                pickles("b", "e"),
+                pickles("c", "f"));
+    }
+
+    @Test
+    public void assignsTheLongestPicklesFirstToTheLightestShard() {
+        List<String> pickles = pickles("a", "b", "c", "d", "e", "f");
+        Map<String, Long> history = history("a", 7, "b", 5, "c", 4, "d", 3, "e", 3, "f", 2);
+
+        List<List<String>> shards = planner.assign(pickles, history, 2);
+
+        // a(7) -> 1, b(5) -> 2, c(4) -> 2, d(3) -> 1, e(3) -> 2, f(2) -> 1: 12 s each
+        assertThat(shards).containsExactly(
+                pickles("a", "d", "f"),
+                pickles("b", "c", "e"));
+    }
+
+    @Test
+    public void weighsPicklesWithoutHistoryAtTheMeanOfTheKnownOnes() {
+        List<String> pickles = pickles("a", "b", "c", "d");
+        Map<String, Long> history = history("a", 10, "b", 2);
+
+        List<List<String>> shards = planner.assign(pickles, history, 2);
+
+        // c and d weigh 6, so together they balance a and b
+        assertThat(shards).containsExactly(
+                pickles("a", "b"),
+                pickles("c", "d"));
+    }
+
+    @Test
+    public void leavesShardsEmptyWhenThereAreFewerPickles() {
+        List<String> pickles = pickles("a", "b");
+
+        List<List<String>> shards = planner.assign(pickles, Collections.emptyMap(), 4);
+
+        assertThat(shards).containsExactly(pickles("a"), pickles("b"), pickles(), pickles());
+    }
+
+    @Test
+    public void assignsEveryPickleOnceAndKeepsFileAndLineOrder() {
+        List<String> pickles = pickles("a", "b", "c", "d", "e", "f", "g", "h", "i");
+        Map<String, Long> history = history("a", 1, "b", 9, "c", 2, "d", 8, "e", 3, "f", 7, "g", 4, "h", 6, "i", 5);
+
+        List<List<String>> shards = planner.assign(pickles, history, 3);
+
+        assertThat(shards.stream().mapToInt(List::size).sum()).isEqualTo(pickles.size());
+        assertThat(shards.stream().flatMap(List::stream)).containsExactlyInAnyOrderElementsOf(pickles);
+        for (List<String> shard : shards) {
+            assertThat(shard).isSortedAccordingTo((first, second) -> pickles.indexOf(first) - pickles.indexOf(second));
+        }
+    }
+
+    /**
+     * Builds pickles, one scenario per line of the same feature file.
+     *
+     * @param names The scenario names, a to i.
+     * @return The pickles as "path/to/file.feature:line".
+     */
+    private static List<String> pickles(String... names) {
+        String[] pickles = new String[names.length];
+        for (int i = 0; i < names.length; i++) {
+            pickles[i] = "features/login.feature:" + (10 + names[i].charAt(0) - 'a');
+        }
+        return Arrays.asList(pickles);
+    }
+
+    /**
+     * Builds the pickle durations.
+     *
+     * @param namesAndSeconds Pairs of scenario name and duration in seconds.
+     * @return The durations in nanoseconds by pickle.
+     */
+    private static Map<String, Long> history(Object... namesAndSeconds) {
+        Map<String, Long> history = new HashMap<>();
+        for (int i = 0; i < namesAndSeconds.length; i += 2) {
+            history.put(pickles((String) namesAndSeconds[i]).get(0), ((Integer) namesAndSeconds[i + 1]) * 1_000_000_000L);
+        }
+        return history;
+    }
+}
@@ -0,0 +1,202 @@
+package sharding;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+import reporting.ReportBuilder;
+import reporting.StreamingReportPlugin;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * ShardReportMerger class - merges the event logs (events.ndjson) of the shards of a run into one
+ * event log and rebuilds the HTML report and summary from it, as if the run had not been sharded.
+ * The logs are merged by timestamp with one line of each shard in memory at a time, so merging
+ * takes the same memory however large the shard reports are. Binary attachments are copied into
+ * the merged report, prefixed with their shard, since every shard numbers its own from 1. The merged
+ * event log also serves as duration history for the next plan.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public class ShardReportMerger {
+
+    private final Json json = new Json();
+
+    /**
+     * Merges shard reports.
+     *
+     * @param args The shard event logs (comma separated files or directories) and the report directory to write.
+     * @throws IOException If an event log cannot be read or the merged report cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: ShardReportMerger <shardReports> <outputDirectory>");
+        }
+        Path outputDirectory = Paths.get(args[1]).toAbsolutePath();
+        Path output = outputDirectory.resolve(StreamingReportPlugin.EVENTS_FILE);
+        List<Path> reports = new ArrayList<>();
+        for (Path report : ShardPlanner.findReports(args[0])) {
+            // Never read the previous merged report back in
+            if (!report.toAbsolutePath().equals(output)) {
+                reports.add(report);
+            }
+        }
+        new ShardReportMerger().merge(reports, outputDirectory);
+        System.out.printf("Merged %d shard reports into %s%n", reports.size(), outputDirectory);
+    }
+
+    /**
+     * Merges event logs into one and builds the report of the merged run. The run started and run
+     * finished events of the shards are replaced by one of each, at the earliest start and latest end.
+     * Binary attachments are copied from the directory of each shard's event log.
+     *
+     * @param reports         The shard event logs.
+     * @param outputDirectory The report directory to write the merged event log and the report to.
+     * @throws IOException If an event log cannot be read or the merged report cannot be written.
+     */
+    public void merge(List<Path> reports, Path outputDirectory) throws IOException {
+        Files.createDirectories(outputDirectory);
+        List<BufferedReader> readers = new ArrayList<>();
+        List<Path> shardDirectories = new ArrayList<>();
+        try (Writer output = new BufferedWriter(Files.newBufferedWriter(
+                outputDirectory.resolve(StreamingReportPlugin.EVENTS_FILE), StandardCharsets.UTF_8));
+             ReportBuilder report = new ReportBuilder(outputDirectory, false)) {
+            // The next event of each shard, earliest first (ties go to the first shard)
+            PriorityQueue<PendingEvent> next = new PriorityQueue<>(Comparator
+                    .comparingLong((PendingEvent pending) -> pending.timestamp)
+                    .thenComparingInt(pending -> pending.shard));
+            for (Path path : reports) {
+                BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+                readers.add(reader);
+                shardDirectories.add(path.toAbsolutePath().getParent());
+                PendingEvent first = readEvent(reader, readers.size() - 1);
+                if (first != null) {
+                    next.add(first);
+                }
+            }
+
+            boolean started = false;
+            long finishedAt = 0;
+            while (!next.isEmpty()) {
+                PendingEvent pending = next.poll();
+                String type = String.valueOf(pending.event.get("type"));
+                if (ReportBuilder.TEST_RUN_FINISHED.equals(type)) {
+                    finishedAt = Math.max(finishedAt, pending.timestamp);
+                } else if (!ReportBuilder.TEST_RUN_STARTED.equals(type) || !started) {
+                    started |= ReportBuilder.TEST_RUN_STARTED.equals(type);
+                    if (ReportBuilder.ATTACHMENT.equals(type) && pending.event.get("path") != null) {
+                        copyAttachment(pending.event, pending.shard, shardDirectories.get(pending.shard), outputDirectory);
+                    }
+                    write(output, report, pending.event);
+                }
+                PendingEvent following = readEvent(readers.get(pending.shard), pending.shard);
+                if (following != null) {
+                    next.add(following);
+                }
+            }
+            if (finishedAt > 0) {
+                Map<String, Object> finished = new LinkedHashMap<>();
+                finished.put("type", ReportBuilder.TEST_RUN_FINISHED);
+                finished.put("timestamp", finishedAt);
+                write(output, report, finished);
+            }
+        } finally {
+            for (BufferedReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Reads the next event of a shard, skipping blank lines.
+     *
+     * @param reader The event log of the shard.
+     * @param shard  The index of the shard.
+     * @return The event, or null at the end of the log.
+     * @throws IOException If the log cannot be read.
+     */
+    private PendingEvent readEvent(BufferedReader reader, int shard) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.trim().isEmpty()) {
+                Map<String, Object> event = json.toType(line, Json.MAP_TYPE);
+                Object timestamp = event.get("timestamp");
+                return new PendingEvent(shard, event, timestamp instanceof Number ? ((Number) timestamp).longValue() : 0);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Copies the binary attachment of an event from its shard into the merged report and points the
+     * event at the copy. A missing file is reported and the event keeps its path.
+     *
+     * @param event           The attachment event.
+     * @param shard           The index of the shard.
+     * @param shardDirectory  The report directory of the shard.
+     * @param outputDirectory The merged report directory.
+     * @throws IOException If the attachment cannot be copied.
+     */
+    private void copyAttachment(Map<String, Object> event, int shard, Path shardDirectory, Path outputDirectory)
+            throws IOException {
+        Path source = shardDirectory.resolve(String.valueOf(event.get("path")));
+        if (!Files.isRegularFile(source)) {
+            System.err.println("Attachment " + source + " not found; its link in the merged report is broken");
+            return;
+        }
+        String path = StreamingReportPlugin.ATTACHMENTS + "/shard" + (shard + 1) + "-" + source.getFileName();
+        Path target = outputDirectory.resolve(path);
+        Files.createDirectories(target.getParent());
+        if (!source.equals(target)) {
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        event.put("path", path);
+    }
+
+    /**
+     * Writes an event to the merged event log and adds it to the merged report.
+     *
+     * @param output The merged event log.
+     * @param report The merged report.
+     * @param event  The event.
+     * @throws IOException If the event cannot be written.
+     */
+    private void write(Writer output, ReportBuilder report, Map<String, Object> event) throws IOException {
+        StringBuilder line = new StringBuilder();
+        try (JsonOutput json = this.json.newOutput(line)) {
+            json.setPrettyPrint(false);
+            json.write(event);
+        }
+        output.write(line.append('\n').toString());
+        report.accept(event);
+    }
+
+    /**
+     * The next event of a shard.
+     */
+    private static class PendingEvent {
+
+        private final int shard;
+        private final Map<String, Object> event;
+        private final long timestamp;
+
+        private PendingEvent(int shard, Map<String, Object> event, long timestamp) {
+            this.shard = shard;
+            this.event = event;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package steps;
+
+import actions.LoginPageActions;
+import io.cucumber.java.Before;
+import io.cucumber.java.Scenario;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import helpers.Navigator;
+import org.openqa.selenium.WebDriver;
+import pages.DashboardPage;
+import pages.LoginPage;
+import testBase.DataDrivenRun;
+import testBase.DriverFactory;
+import testBase.Environment;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * DataDrivenSteps class - step definitions that run the rows of a CSV data file in the browser
+ * session of one scenario, see {@link DataDrivenRun}. The page objects are created per row, so this
+ * class can be instantiated before the scenario has a driver.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public class DataDrivenSteps {
+
+    // The running scenario, to report the rows on
+    private Scenario scenario;
+
+    // Outcome of the last data-driven run of this scenario
+    private DataDrivenRun.Summary summary;
+
+    /**
+     * Keeps the running scenario, so that the steps can report on it.
+     *
+     * @param scenario The Cucumber Scenario object.
+     */
+    @Before
+    public void rememberScenario(Scenario scenario) {
+        this.scenario = scenario;
+    }
+
+    /**
+     * Step definition for trying every login of a CSV data file in this scenario's browser.
+     * Each row has the columns "email address", "password" and "expected" (dashboard or error).
+     * The rows are read one at a time and the session is reset between them; the result of each
+     * row is written to a results file that is linked from the report.
+     *
+     * @param file The data file, relative to -Ddata.dir.
+     * @throws IOException If the data file cannot be read or the results cannot be written.
+     */
+    @When("I try every login in {string}")
+    public void iTryEveryLoginIn(String file) throws IOException {
+        DataDrivenRun run = new DataDrivenRun(Environment.getBaseUrl(), LoginPage.readiness());
+        summary = run.run(DataDrivenRun.getDataFile(file), this::tryLogin);
+        scenario.log(summary.toString());
+        scenario.attach(summary.getResultsFile().toAbsolutePath().toUri().toString(), "text/uri-list", "Row results");
+    }
+
+    /**
+     * Step definition for verifying that every row of the last data-driven run had its expected outcome.
+     */
+    @Then("every row has the expected outcome")
+    public void everyRowHasTheExpectedOutcome() {
+        assertThat(summary).as("A data-driven run has to come first").isNotNull();
+        assertThat(summary.getFailed())
+                .withFailMessage("%d of %d rows failed, e.g.%n%s", summary.getFailed(), summary.getRows(),
+                        String.join(System.lineSeparator(), summary.getFailures()))
+                .isZero();
+    }
+
+    /**
+     * Logs in with the credentials of a data row and checks the expected outcome.
+     *
+     * @param row The values of the row by column name.
+     */
+    private void tryLogin(Map<String, String> row) {
+        // A fresh page object per row, as the previous row's elements went with its page
+        LoginPageActions loginActions = new LoginPageActions();
+        loginActions.login(row.get("email address"), row.get("password"));
+        if ("error".equalsIgnoreCase(row.get("expected"))) {
+            loginActions.checkLoginErrorIsDisplayed();
+        } else {
+            WebDriver driver = DriverFactory.getInstance().getDriver();
+            Navigator.awaitPage(driver, DashboardPage.URL_PART, DashboardPage.readiness());
+            assertThat(driver.getCurrentUrl())
+                    .as("Check if the current URL contains 'Dashboard'")
+                    .contains(DashboardPage.URL_PART);
+        }
+    }
+}
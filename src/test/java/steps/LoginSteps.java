@@ -5,9 +5,18 @@ import io.cucumber.java.en.And;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
+import constants.TestUsers;
+import helpers.Navigator;
+import org.openqa.selenium.WebDriver;
+import pages.DashboardPage;
+import pages.LoginPage;
 import testBase.DriverFactory;
+import testBase.Environment;
+import testBase.SessionStore;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Lock;
 
-import static constants.Constants.BASE_URL;
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -18,6 +27,9 @@ import static org.assertj.core.api.Assertions.assertThat;
  */
 public class LoginSteps {
 
+    // How long a restored session may take to land on the dashboard before it counts as rejected
+    private static final Duration SESSION_LANDING_TIMEOUT = Duration.ofSeconds(10);
+
     // Instance of LoginPageActions to perform actions on the login page
     LoginPageActions loginActions = new LoginPageActions();
 
@@ -29,7 +41,34 @@ public class LoginSteps {
     public void iAmOnTheLoginPage() {
         assertThat(DriverFactory.getInstance().getDriver().getCurrentUrl())
                 .as("The current URL should contain the base URL")
-                .contains(BASE_URL);
+                .contains(Environment.getBaseUrl());
+    }
+
+    /**
+     * Step definition for starting a scenario as a logged in user.
+     * It restores the stored session of the user into the driver and only falls back to a real
+     * login through the UI (which then stores a new session) when there is no valid session.
+     *
+     * @param user The alias of the test user in users.properties.
+     */
+    @Given("I am logged in as {string}")
+    public void iAmLoggedInAs(String user) {
+        WebDriver driver = DriverFactory.getInstance().getDriver();
+        SessionStore sessionStore = SessionStore.getInstance();
+        String baseUrl = Environment.getBaseUrl();
+        Lock lock = sessionStore.getLock(user, baseUrl);
+        lock.lock();
+        try {
+            if (sessionStore.restore(driver, user, baseUrl, this::isOnDashboard)) {
+                return;
+            }
+            Navigator.navigateTo(driver, baseUrl, LoginPage.readiness());
+            loginActions.login(TestUsers.getEmailAddress(user), TestUsers.getPassword(user));
+            iAmSuccessfullyLoggedIn();
+            sessionStore.capture(driver, user, baseUrl);
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -72,15 +111,42 @@ public class LoginSteps {
         loginActions.clickLoginButton();
     }
 
+    /**
+     * Step definition for logging in with one step.
+     * It accepts the cookie policy, enters the credentials and clicks the login button,
+     * as a single batched interaction when -Dinteraction=batched is set.
+     *
+     * @param emailAddress The email address to be entered.
+     * @param password     The password to be entered.
+     */
+    @When("I log in with email address {string} and password {string}")
+    public void iLogInWithEmailAddressAndPassword(String emailAddress, String password) {
+        loginActions.login(emailAddress, password);
+    }
+
     /**
      * Step definition for verifying successful login.
-     * It asserts that the current URL contains 'Dashboard' indicating successful login.
+     * It waits for the dashboard to be ready, as the login click may return before the browser has
+     * left the login page, and asserts that the current URL contains 'Dashboard'.
      */
     @Then("I am successfully logged in")
     public void iAmSuccessfullyLoggedIn() {
-        assertThat(DriverFactory.getInstance().getDriver().getCurrentUrl())
+        WebDriver driver = DriverFactory.getInstance().getDriver();
+        Navigator.awaitPage(driver, DashboardPage.URL_PART, DashboardPage.readiness());
+        assertThat(driver.getCurrentUrl())
                 .as("Check if the current URL contains 'Dashboard'")
-                .contains("Dashboard");
+                .contains(DashboardPage.URL_PART);
+    }
+
+    /**
+     * Checks whether the driver is on the dashboard, i.e. logged in, waiting a while for the
+     * navigation of a restored session to land.
+     *
+     * @param driver The WebDriver instance.
+     * @return true if the dashboard became ready.
+     */
+    private boolean isOnDashboard(WebDriver driver) {
+        return Navigator.awaitPage(driver, DashboardPage.readiness(), SESSION_LANDING_TIMEOUT) != null;
     }
 
     @Then("An error is displayed")
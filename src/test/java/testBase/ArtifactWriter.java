@@ -0,0 +1,250 @@
+package testBase;
+
+import enums.DropPolicies;
+import org.openqa.selenium.logging.LogEntries;
+import org.openqa.selenium.logging.LogEntry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ArtifactWriter class - This class writes the failure artifacts of scenarios (screenshots, page
+ * sources and browser logs) to -Dartifacts.dir in the background. Scenarios hand over the raw content
+ * they took from the driver; decoding, compression and the disk write happen on the writer threads, so
+ * a failing scenario's teardown does not wait for them. The
+ * queue is bounded by -Dartifacts.queueSize and when it is full the -Dartifacts.dropPolicy decides
+ * which artifact is dropped. Queued artifacts are written before the JVM exits.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public class ArtifactWriter {
+
+    // Singleton instance of ArtifactWriter
+    private static final ArtifactWriter instance = new ArtifactWriter();
+
+    private final Path directory;
+    private final DropPolicies dropPolicy;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    // Private constructor to prevent instantiation
+    private ArtifactWriter() {
+        this.directory = Paths.get(System.getProperty("artifacts.dir", "target/artifacts"));
+        this.dropPolicy = getDropPolicy();
+        int threads = Math.max(1, Integer.getInteger("artifacts.writerThreads", 1));
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, Integer.getInteger("artifacts.queueSize", 16))),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "artifact-writer-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "artifact-writer-shutdown"));
+    }
+
+    /**
+     * Provides the global point of access to the Singleton instance of ArtifactWriter.
+     *
+     * @return The Singleton instance of ArtifactWriter.
+     */
+    public static ArtifactWriter getInstance() {
+        return instance;
+    }
+
+    /**
+     * Indicates whether failure artifacts are captured. This is on by default and can be
+     * switched off with -Dartifacts=false.
+     *
+     * @return true if failure artifacts should be captured.
+     */
+    public boolean isEnabled() {
+        return !"false".equalsIgnoreCase(System.getProperty("artifacts"));
+    }
+
+    /**
+     * Queues a screenshot. The PNG is decoded from the base64 form the driver returned it in
+     * on the writer thread.
+     *
+     * @param name   The file name of the artifact, without extension.
+     * @param base64 The screenshot as returned by the driver.
+     * @return The file the screenshot will be written to, or null if it was dropped.
+     */
+    public Path writeScreenshot(String name, String base64) {
+        return submit(name + ".png", () -> Base64.getMimeDecoder().decode(base64));
+    }
+
+    /**
+     * Queues a page source, which is gzip compressed on the writer thread.
+     *
+     * @param name       The file name of the artifact, without extension.
+     * @param pageSource The page source.
+     * @return The file the page source will be written to, or null if it was dropped.
+     */
+    public Path writePageSource(String name, String pageSource) {
+        return submit(name + ".html.gz", () -> gzip(pageSource));
+    }
+
+    /**
+     * Queues a browser log, which is formatted and gzip compressed on the writer thread.
+     *
+     * @param name The file name of the artifact, without extension.
+     * @param log  The log entries as returned by the driver.
+     * @return The file the log will be written to, or null if it was dropped.
+     */
+    public Path writeBrowserLog(String name, LogEntries log) {
+        return submit(name + ".log.gz", () -> {
+            StringBuilder text = new StringBuilder();
+            for (LogEntry entry : log) {
+                text.append(Instant.ofEpochMilli(entry.getTimestamp())).append(' ')
+                        .append(entry.getLevel()).append(' ')
+                        .append(entry.getMessage()).append('\n');
+            }
+            return gzip(text.toString());
+        });
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ArtifactWriter[written=%d, dropped=%d, queued=%d]",
+                written.get(), dropped.get(), executor.getQueue().size());
+    }
+
+    /**
+     * Queues an artifact, applying the drop policy when the queue is full.
+     *
+     * @param fileName The file name of the artifact.
+     * @param encoder  Turns the raw content into the bytes of the file.
+     * @return The file the artifact will be written to, or null if it was dropped.
+     */
+    private Path submit(String fileName, Callable<byte[]> encoder) {
+        PendingArtifact artifact = new PendingArtifact(directory.resolve(fileName.replaceAll("[^A-Za-z0-9._-]", "_")), encoder);
+        try {
+            executor.execute(artifact);
+            return artifact.target;
+        } catch (RejectedExecutionException e) {
+            if (executor.isShutdown()) {
+                return drop(artifact);
+            }
+        }
+
+        switch (dropPolicy) {
+            case Oldest:
+                Runnable oldest = executor.getQueue().poll();
+                if (oldest != null) {
+                    drop((PendingArtifact) oldest);
+                }
+                try {
+                    executor.execute(artifact);
+                    return artifact.target;
+                } catch (RejectedExecutionException e) {
+                    return drop(artifact);
+                }
+            case Inline:
+                artifact.run();
+                return artifact.target;
+            default:
+                return drop(artifact);
+        }
+    }
+
+    /**
+     * Counts and reports an artifact that will not be written.
+     *
+     * @param artifact The dropped artifact.
+     * @return null, for use as the result of submit.
+     */
+    private Path drop(PendingArtifact artifact) {
+        dropped.incrementAndGet();
+        System.err.println("Artifact writer is busy, dropped " + artifact.target.getFileName());
+        return null;
+    }
+
+    /**
+     * Writes the queued artifacts and stops the writer threads.
+     */
+    private void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (written.get() > 0 || dropped.get() > 0) {
+            System.out.println(this);
+        }
+    }
+
+    /**
+     * Gets the drop policy from -Dartifacts.dropPolicy (default newest, also when it is set empty).
+     *
+     * @return The drop policy.
+     */
+    private static DropPolicies getDropPolicy() {
+        String value = System.getProperty("artifacts.dropPolicy", "newest").trim();
+        if (value.isEmpty()) {
+            return DropPolicies.Newest;
+        }
+        String valueCapitalised = value.substring(0, 1).toUpperCase() + value.substring(1).toLowerCase();
+        return DropPolicies.valueOf(valueCapitalised);
+    }
+
+    /**
+     * Compresses text with gzip.
+     *
+     * @param text The text.
+     * @return The compressed UTF-8 bytes.
+     * @throws IOException If the text cannot be compressed.
+     */
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream output = new GZIPOutputStream(compressed)) {
+            output.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * An artifact waiting to be encoded and written.
+     */
+    private class PendingArtifact implements Runnable {
+
+        private final Path target;
+        private final Callable<byte[]> encoder;
+
+        private PendingArtifact(Path target, Callable<byte[]> encoder) {
+            this.target = target;
+            this.encoder = encoder;
+        }
+
+        @Override
+        public void run() {
+            try {
+                byte[] content = encoder.call();
+                Files.createDirectories(target.getParent());
+                Files.write(target, content);
+                written.incrementAndGet();
+            } catch (Exception e) {
+                System.err.println("Error writing artifact " + target + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -1,50 +1,102 @@
 package testBase;
 
 import enums.Browsers;
-import io.github.bonigarcia.wdm.WebDriverManager;
+import enums.LaunchProfiles;
+import metrics.MetricsListener;
+import metrics.TraceRecorder;
+import org.htmlunit.BrowserVersion;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.PageLoadStrategy;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
 import org.openqa.selenium.ie.InternetExplorerDriver;
 import org.openqa.selenium.ie.InternetExplorerOptions;
 import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.support.events.EventFiringDecorator;
 
+import java.io.IOException;
 import java.net.MalformedURLException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * BrowserFactory class - This class is responsible for creating instances of WebDriver
- * for different browsers. It supports Chrome, Firefox, and Internet Explorer.
+ * for different browsers. It supports Chrome, Firefox, and Internet Explorer, locally or
+ * on a remote Selenium Grid or BrowserStack hub, and the browserless HtmlUnit driver.
+ * Chrome and Firefox are launched with the named launch profile selected with -Dprofile.
  * Author: Rob Thomson
  * Date: 06/06/2024
  */
 public class BrowserFactory {
 
+    private static final String SHARED_MEMORY_PATH = "/dev/shm";
+    private static final long MIN_SHARED_MEMORY_BYTES = 512L * 1024 * 1024;
+
+    private final LaunchProfiles profile;
+
+    /**
+     * Constructor for the BrowserFactory class.
+     * Reads the launch profile from the command line parameter -Dprofile (default: Default).
+     */
+    public BrowserFactory() {
+        this.profile = getLaunchProfile();
+    }
+
     /**
-     * Creates an instance of WebDriver based on the specified browser type.
+     * Creates an instance of WebDriver based on the specified browser type, decorates it with the
+     * command latency listener and attaches the request interception layer to it.
      *
      * @param browser The type of browser for which the WebDriver instance is to be created.
      * @return A WebDriver instance for the specified browser.
-     * @throws MalformedURLException If an error occurs while setting up BrowserStack capabilities.
+     * @throws MalformedURLException If the remote hub URL (-Dgrid.url) is malformed.
      */
     public WebDriver createBrowserInstance(Browsers browser) throws MalformedURLException {
         if (browser == null) {
             throw new IllegalArgumentException("Browser type cannot be null.");
         }
+        WebDriver driver;
         switch (browser) {
             case Chrome:
-                return createChromeDriver();
+                driver = createChromeDriver();
+                break;
             case Firefox:
-                return createFirefoxDriver();
+                driver = createFirefoxDriver();
+                break;
             case IE:
-                return createInternetExplorerDriver();
+                driver = createInternetExplorerDriver();
+                break;
+            case BrowserStack:
+                driver = createRemoteDriver();
+                break;
+            case HtmlUnit:
+                driver = createHtmlUnitDriver();
+                break;
             default:
                 throw new IllegalArgumentException("Unsupported browser type: " + browser);
         }
+        if (isMetricsEnabled() || TraceRecorder.isEnabled()) {
+            driver = new EventFiringDecorator<>(new MetricsListener()).decorate(driver);
+        }
+        RequestInterception.attach(driver);
+        return driver;
+    }
+
+    /**
+     * Indicates whether created drivers are decorated to record command latency metrics.
+     * Metrics are on by default and can be switched off with -Dmetrics=false.
+     *
+     * @return true if drivers should record metrics.
+     */
+    private boolean isMetricsEnabled() {
+        return !"false".equalsIgnoreCase(System.getProperty("metrics"));
     }
 
     /**
@@ -53,11 +105,14 @@ public class BrowserFactory {
      * @return A WebDriver instance for Chrome.
      */
     private WebDriver createChromeDriver() {
-        WebDriverManager.chromedriver().setup();
+        DriverBinaryResolver.getInstance().resolve(Browsers.Chrome);
         ChromeOptions options = new ChromeOptions();
+        options.setPageLoadStrategy(getPageLoadStrategy());
         configureChromeOptions(options);
         WebDriver driver = new ChromeDriver(options);
-        maximizeWindow(driver);
+        if (profile == LaunchProfiles.Default) {
+            maximizeWindow(driver);
+        }
         return driver;
     }
 
@@ -68,13 +123,46 @@ public class BrowserFactory {
      */
     private void configureChromeOptions(ChromeOptions options) {
         options.setExperimentalOption("excludeSwitches", Arrays.asList("enable-automation"));
-        //options.addArguments("--headless");
         Map<String, Object> prefs = new HashMap<>();
         prefs.put("credentials_enable_service", false);
         prefs.put("profile.password_manager_enabled", false);
+        if (profile == LaunchProfiles.Lean) {
+            configureLeanChromeOptions(options, prefs);
+        }
         options.setExperimentalOption("prefs", prefs);
     }
 
+    /**
+     * Configures the lean launch profile for Chrome: headless with a fixed viewport, no extensions,
+     * background networking or GPU, and images and fonts blocked when requested.
+     *
+     * @param options The ChromeOptions instance to configure.
+     * @param prefs   The Chrome preferences to add to.
+     */
+    private void configureLeanChromeOptions(ChromeOptions options, Map<String, Object> prefs) {
+        options.addArguments(
+                "--headless=new",
+                "--window-size=" + getViewportWidth() + "," + getViewportHeight(),
+                "--disable-extensions",
+                "--disable-background-networking",
+                "--disable-component-update",
+                "--disable-default-apps",
+                "--disable-sync",
+                "--disable-gpu",
+                "--no-first-run",
+                "--mute-audio");
+        // Containers often have a tiny /dev/shm, which makes Chrome crash on larger pages
+        if (isSharedMemoryLimited()) {
+            options.addArguments("--disable-dev-shm-usage");
+        }
+        if (Boolean.getBoolean("profile.blockImages")) {
+            prefs.put("profile.managed_default_content_settings.images", 2);
+        }
+        if (Boolean.getBoolean("profile.blockFonts")) {
+            options.addArguments("--disable-remote-fonts");
+        }
+    }
+
     /**
      * Maximizes the browser window.
      *
@@ -93,11 +181,14 @@ public class BrowserFactory {
      * @return A WebDriver instance for Firefox.
      */
     private WebDriver createFirefoxDriver() {
-        WebDriverManager.firefoxdriver().setup();
+        DriverBinaryResolver.getInstance().resolve(Browsers.Firefox);
         FirefoxOptions options = new FirefoxOptions();
+        options.setPageLoadStrategy(getPageLoadStrategy());
         configureFirefoxOptions(options);
         WebDriver driver = new FirefoxDriver(options);
-        maximizeWindow(driver);
+        if (profile == LaunchProfiles.Default) {
+            maximizeWindow(driver);
+        }
         return driver;
     }
 
@@ -108,6 +199,106 @@ public class BrowserFactory {
      */
     private void configureFirefoxOptions(FirefoxOptions options) {
         options.addArguments("-private");
+        if (profile == LaunchProfiles.Lean) {
+            configureLeanFirefoxOptions(options);
+        }
+    }
+
+    /**
+     * Configures the lean launch profile for Firefox: headless with a fixed viewport, no extension
+     * updates, background networking, telemetry or GPU acceleration, and images and fonts blocked
+     * when requested. Extensions installed outside the profile (user, application and system scopes)
+     * are not loaded, and any that appear in a scope start disabled. Firefox's built-in add-ons cannot
+     * be switched off with preferences, but they no longer update themselves.
+     *
+     * @param options The FirefoxOptions instance to configure.
+     */
+    private void configureLeanFirefoxOptions(FirefoxOptions options) {
+        options.addArguments("-headless", "--width=" + getViewportWidth(), "--height=" + getViewportHeight());
+        options.addPreference("extensions.update.enabled", false);
+        options.addPreference("extensions.enabledScopes", 0);
+        options.addPreference("extensions.autoDisableScopes", 15);
+        options.addPreference("extensions.systemAddon.update.enabled", false);
+        options.addPreference("extensions.getAddons.cache.enabled", false);
+        options.addPreference("app.update.auto", false);
+        options.addPreference("network.prefetch-next", false);
+        options.addPreference("network.dns.disablePrefetch", true);
+        options.addPreference("browser.safebrowsing.malware.enabled", false);
+        options.addPreference("browser.safebrowsing.phishing.enabled", false);
+        options.addPreference("datareporting.healthreport.uploadEnabled", false);
+        options.addPreference("toolkit.telemetry.enabled", false);
+        options.addPreference("layers.acceleration.disabled", true);
+        if (Boolean.getBoolean("profile.blockImages")) {
+            options.addPreference("permissions.default.image", 2);
+        }
+        if (Boolean.getBoolean("profile.blockFonts")) {
+            options.addPreference("gfx.downloadable_fonts.enabled", false);
+            options.addPreference("browser.display.use_document_fonts", 0);
+        }
+    }
+
+    /**
+     * Retrieves the launch profile from the command line parameter -Dprofile.
+     *
+     * @return The launch profile, Default when the parameter is not set.
+     */
+    private LaunchProfiles getLaunchProfile() {
+        String value = System.getProperty("profile");
+        if (value == null || value.isEmpty()) {
+            return LaunchProfiles.Default;
+        }
+        String valueCapitalised = value.substring(0, 1).toUpperCase() + value.substring(1).toLowerCase();
+        return LaunchProfiles.valueOf(valueCapitalised);
+    }
+
+    /**
+     * Retrieves the page-load strategy from the command line parameter -DpageLoadStrategy
+     * (normal, eager or none). With eager or none, navigation returns before every sub-resource
+     * has loaded and the readiness condition of the page decides when it can be used.
+     *
+     * @return The page-load strategy, normal when the parameter is not set.
+     */
+    private PageLoadStrategy getPageLoadStrategy() {
+        String value = System.getProperty("pageLoadStrategy");
+        if (value == null || value.isEmpty()) {
+            return PageLoadStrategy.NORMAL;
+        }
+        PageLoadStrategy strategy = PageLoadStrategy.fromString(value.toLowerCase());
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unsupported page-load strategy: " + value);
+        }
+        return strategy;
+    }
+
+    /**
+     * @return The viewport width of the lean profile, set with -Dprofile.width (default 1366).
+     */
+    private int getViewportWidth() {
+        return Integer.getInteger("profile.width", 1366);
+    }
+
+    /**
+     * @return The viewport height of the lean profile, set with -Dprofile.height (default 768).
+     */
+    private int getViewportHeight() {
+        return Integer.getInteger("profile.height", 768);
+    }
+
+    /**
+     * Checks whether /dev/shm is missing or too small for Chrome, as is usual in containers.
+     *
+     * @return true if Chrome should use the temp directory instead of /dev/shm.
+     */
+    private boolean isSharedMemoryLimited() {
+        Path sharedMemory = Paths.get(SHARED_MEMORY_PATH);
+        if (!Files.isDirectory(sharedMemory)) {
+            return false;
+        }
+        try {
+            return Files.getFileStore(sharedMemory).getTotalSpace() < MIN_SHARED_MEMORY_BYTES;
+        } catch (IOException e) {
+            return true;
+        }
     }
 
     /**
@@ -116,8 +307,9 @@ public class BrowserFactory {
      * @return A WebDriver instance for Internet Explorer.
      */
     private WebDriver createInternetExplorerDriver() {
-        WebDriverManager.iedriver().setup();
+        DriverBinaryResolver.getInstance().resolve(Browsers.IE);
         InternetExplorerOptions options = new InternetExplorerOptions();
+        options.setPageLoadStrategy(getPageLoadStrategy());
         configureIEOptions(options);
         WebDriver driver = new InternetExplorerDriver(options);
         maximizeWindow(driver);
@@ -134,20 +326,102 @@ public class BrowserFactory {
     }
 
     /**
-     * Configures capabilities for BrowserStack.
+     * Creates a browserless HtmlUnit driver that emulates Chrome in the test JVM, with JavaScript off.
+     * HtmlUnit does no layout, so the in-browser readiness checks could not tell visible elements apart;
+     * the driver is handed out as a plain WebDriver instead, see {@link BrowserlessDriver}.
+     *
+     * @return A WebDriver instance for HtmlUnit.
+     */
+    private WebDriver createHtmlUnitDriver() {
+        return new BrowserlessDriver(new HtmlUnitDriver(BrowserVersion.CHROME, false));
+    }
+
+    /**
+     * Gets the browser type of a browser name, ignoring case, e.g. "htmlunit" or "browserstack".
+     *
+     * @param name The browser name.
+     * @return The browser type.
+     * @throws IllegalArgumentException If there is no such browser type.
+     */
+    public static Browsers getBrowser(String name) {
+        for (Browsers browser : Browsers.values()) {
+            if (browser.name().equalsIgnoreCase(name)) {
+                return browser;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported browser type: " + name);
+    }
+
+    /**
+     * Indicates whether a browser type runs the page's JavaScript. Every browser does, except the
+     * browserless HtmlUnit driver.
+     *
+     * @param browser The type of browser.
+     * @return true if the browser runs JavaScript.
+     */
+    public static boolean runsJavascript(Browsers browser) {
+        return browser != Browsers.HtmlUnit;
+    }
+
+    /**
+     * Creates a RemoteWebDriver session on the Selenium Grid or BrowserStack hub given with -Dgrid.url.
+     * The remote browser (-Dgrid.browser, chrome or firefox) gets the same options and launch profile
+     * as a local one, plus the BrowserStack capabilities when the hub is BrowserStack.
+     *
+     * @return A WebDriver instance for the remote browser.
+     * @throws MalformedURLException If the hub URL is malformed.
+     */
+    private WebDriver createRemoteDriver() throws MalformedURLException {
+        RemoteSessionFactory remote = RemoteSessionFactory.getInstance();
+        Capabilities capabilities = getRemoteBrowserOptions();
+        if (remote.isBrowserStack()) {
+            capabilities = capabilities.merge(configureBrowserStackCapabilities());
+        }
+        WebDriver driver = remote.createSession(capabilities);
+        if (profile == LaunchProfiles.Default) {
+            maximizeWindow(driver);
+        }
+        return driver;
+    }
+
+    /**
+     * Builds the options of the remote browser from the command line parameter -Dgrid.browser.
+     *
+     * @return The browser options, Chrome when the parameter is not set.
+     */
+    private Capabilities getRemoteBrowserOptions() {
+        String browser = System.getProperty("grid.browser", "chrome");
+        switch (browser.toLowerCase()) {
+            case "chrome":
+                ChromeOptions chromeOptions = new ChromeOptions();
+                chromeOptions.setPageLoadStrategy(getPageLoadStrategy());
+                configureChromeOptions(chromeOptions);
+                return chromeOptions;
+            case "firefox":
+                FirefoxOptions firefoxOptions = new FirefoxOptions();
+                firefoxOptions.setPageLoadStrategy(getPageLoadStrategy());
+                configureFirefoxOptions(firefoxOptions);
+                return firefoxOptions;
+            default:
+                throw new IllegalArgumentException("Unsupported remote browser type: " + browser);
+        }
+    }
+
+    /**
+     * Configures capabilities for BrowserStack, in the W3C form with the vendor options under "bstack:options".
      *
      * @return A DesiredCapabilities instance configured for BrowserStack.
-     * @throws MalformedURLException If an error occurs while setting up BrowserStack capabilities.
      */
-    private DesiredCapabilities configureBrowserStackCapabilities() throws MalformedURLException {
+    private DesiredCapabilities configureBrowserStackCapabilities() {
         DesiredCapabilities caps = new DesiredCapabilities();
-        caps.setCapability("os_version", "10");
-        caps.setCapability("resolution", "1920x1080");
-        caps.setCapability("browser", "chrome"); // Use "chrome" instead of "Chrome"
-        caps.setCapability("browser_version", "latest");
-        caps.setCapability("os", "Windows");
-        caps.setCapability("name", "BStack-[Java] Sample Test");
-        caps.setCapability("build", "BStack Build Number 1");
+        Map<String, Object> browserStackOptions = new HashMap<>();
+        browserStackOptions.put("os", "Windows");
+        browserStackOptions.put("osVersion", "10");
+        browserStackOptions.put("resolution", "1920x1080");
+        browserStackOptions.put("sessionName", "BStack-[Java] Sample Test");
+        browserStackOptions.put("buildName", "BStack Build Number 1");
+        caps.setCapability("browserVersion", "latest");
+        caps.setCapability("bstack:options", browserStackOptions);
         return caps;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,112 @@
+package testBase;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * BrowserlessDriver class - an HtmlUnit driver with JavaScript switched off, exposed as a plain
+ * WebDriver. HtmlUnitDriver always implements JavascriptExecutor, even when its scripts are disabled;
+ * hiding it here makes the helpers that check for JavascriptExecutor take their WebDriver-only path
+ * (findElements, isDisplayed, getCurrentUrl) instead of failing on a script call.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public class BrowserlessDriver implements WebDriver, HasCapabilities, WrapsDriver {
+
+    private final HtmlUnitDriver driver;
+
+    /**
+     * Constructor for the BrowserlessDriver class.
+     *
+     * @param driver The HtmlUnit driver, with JavaScript disabled.
+     */
+    public BrowserlessDriver(HtmlUnitDriver driver) {
+        if (driver.isJavascriptEnabled()) {
+            throw new IllegalArgumentException("The browserless driver needs an HtmlUnit driver with JavaScript disabled.");
+        }
+        this.driver = driver;
+    }
+
+    @Override
+    public void get(String url) {
+        driver.get(url);
+    }
+
+    @Override
+    public String getCurrentUrl() {
+        return driver.getCurrentUrl();
+    }
+
+    @Override
+    public String getTitle() {
+        return driver.getTitle();
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return driver.findElements(by);
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return driver.findElement(by);
+    }
+
+    @Override
+    public String getPageSource() {
+        return driver.getPageSource();
+    }
+
+    @Override
+    public void close() {
+        driver.close();
+    }
+
+    @Override
+    public void quit() {
+        driver.quit();
+    }
+
+    @Override
+    public Set<String> getWindowHandles() {
+        return driver.getWindowHandles();
+    }
+
+    @Override
+    public String getWindowHandle() {
+        return driver.getWindowHandle();
+    }
+
+    @Override
+    public TargetLocator switchTo() {
+        return driver.switchTo();
+    }
+
+    @Override
+    public Navigation navigate() {
+        return driver.navigate();
+    }
+
+    @Override
+    public Options manage() {
+        return driver.manage();
+    }
+
+    @Override
+    public Capabilities getCapabilities() {
+        return driver.getCapabilities();
+    }
+
+    @Override
+    public WebDriver getWrappedDriver() {
+        return driver;
+    }
+}
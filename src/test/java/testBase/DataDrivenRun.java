@@ -0,0 +1,479 @@
+package testBase;
+
+import helpers.CsvRows;
+import helpers.Navigator;
+import helpers.PageReadiness;
+import metrics.Metrics;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * DataDrivenRun class - runs the rows of a CSV data file one after another in the browser session of
+ * the current scenario, instead of one scenario and one browser per Examples row. Between rows the
+ * session gets a light reset: cookies and storage are cleared and the start page is loaded again.
+ * Rows are read lazily and each row's result is appended to an NDJSON file in -Ddata.resultsDir
+ * (default target/report/data) as soon as it finishes; only the counts and the first failures are
+ * kept, so memory use stays the same however many rows the file has.
+ * Data files are resolved against -Ddata.dir (default src/test/resources/data). With -Ddata.workers=N
+ * the rows run N at a time on a {@link ScenarioExecutor}, each in its own browser from the pool.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public class DataDrivenRun {
+
+    private static final String CLEAR_STORAGE_SCRIPT =
+            "try { window.localStorage.clear(); } catch (e) {}"
+                    + "try { window.sessionStorage.clear(); } catch (e) {}";
+    private static final int MAX_FAILURES = 20;
+
+    private final String startUrl;
+    private final PageReadiness readiness;
+    private final Path resultsDirectory;
+    private final Json json = new Json();
+
+    /**
+     * A check run for one row of the data file.
+     */
+    @FunctionalInterface
+    public interface RowTask {
+
+        /**
+         * Runs the row. The row fails if this throws, e.g. with an assertion error.
+         *
+         * @param row The values of the row by column name.
+         * @throws Exception If the row fails.
+         */
+        void run(Map<String, String> row) throws Exception;
+    }
+
+    /**
+     * Constructor for the DataDrivenRun class.
+     *
+     * @param startUrl  The page each row starts on.
+     * @param readiness The readiness condition of the start page.
+     */
+    public DataDrivenRun(String startUrl, PageReadiness readiness) {
+        this.startUrl = startUrl;
+        this.readiness = readiness;
+        this.resultsDirectory = Paths.get(System.getProperty("data.resultsDir", "target/report/data"));
+    }
+
+    /**
+     * Resolves a data file name against -Ddata.dir.
+     *
+     * @param file The data file, e.g. "logins.csv".
+     * @return The path of the data file.
+     */
+    public static Path getDataFile(String file) {
+        return Paths.get(System.getProperty("data.dir", "src/test/resources/data")).resolve(file);
+    }
+
+    /**
+     * Runs every row of a data file. By default the rows run one after another in the current
+     * scenario's browser: the first row on the page the scenario is already on, every following row
+     * from a reset session. A row that fails, or cannot be parsed, does not stop the run, but a browser session that has
+     * gone away does. With -Ddata.workers=N the rows run as N concurrent tasks of a
+     * {@link ScenarioExecutor} instead, each row in a browser leased from the pool for it.
+     *
+     * @param dataFile The CSV data file.
+     * @param task     The check to run for each row.
+     * @return The outcome of the run.
+     * @throws IOException If the data file cannot be read or the results cannot be written.
+     */
+    public Summary run(Path dataFile, RowTask task) throws IOException {
+        String name = dataFile.getFileName().toString().replaceFirst("\\.csv$", "");
+        Files.createDirectories(resultsDirectory);
+        Path resultsFile = Files.createTempFile(resultsDirectory, name + "-", ".ndjson");
+        Summary summary = new Summary(dataFile, resultsFile);
+
+        int workers = getWorkers();
+        try (CsvRows rows = CsvRows.open(dataFile);
+             Writer results = new BufferedWriter(Files.newBufferedWriter(resultsFile, StandardCharsets.UTF_8))) {
+            if (workers > 1) {
+                runConcurrently(rows, task, name, results, summary, workers);
+            } else {
+                runInSession(rows, task, name, results, summary);
+            }
+        }
+        return summary;
+    }
+
+    /**
+     * Runs the rows one after another in the current scenario's browser.
+     *
+     * @param rows    The rows of the data file.
+     * @param task    The check to run for each row.
+     * @param name    The name of the data file, for the metrics.
+     * @param results The results file.
+     * @param summary The outcome of the run.
+     * @throws IOException If a result cannot be written.
+     */
+    private void runInSession(CsvRows rows, RowTask task, String name, Writer results, Summary summary) throws IOException {
+        WebDriver driver = DriverFactory.getInstance().getDriver();
+        while (rows.hasNext()) {
+            Map<String, String> row = readRow(rows, results, summary);
+            if (row == null) {
+                continue;
+            }
+            if (summary.rows > 0) {
+                reset(driver);
+            }
+            runRow(row, rows.getLineNumber(), task, name, results, summary, true);
+        }
+    }
+
+    /**
+     * Runs the rows as tasks of a {@link ScenarioExecutor}, on virtual threads where the JVM has them.
+     * At most the given number of rows are in flight, so the rows are still read one at a time and
+     * memory use stays flat; each task blocks on the driver pool until a browser is free. A task that
+     * fails outside the row check, e.g. because no browser could be leased or the reset failed, still
+     * frees its slot and counts its row as failed, and then ends the run with that error.
+     *
+     * @param rows    The rows of the data file.
+     * @param task    The check to run for each row.
+     * @param name    The name of the data file, for the metrics and the driver contexts.
+     * @param results The results file.
+     * @param summary The outcome of the run.
+     * @param workers The number of rows in flight.
+     * @throws IOException If a result cannot be written, or a row task failed.
+     */
+    private void runConcurrently(CsvRows rows, RowTask task, String name, Writer results, Summary summary, int workers)
+            throws IOException {
+        Semaphore inFlight = new Semaphore(workers);
+        List<Future<Void>> pending = new ArrayList<>();
+        Throwable failure = null;
+        try (ScenarioExecutor executor = new ScenarioExecutor(BrowserFactory.getBrowser(System.getProperty("browser")))) {
+            while (rows.hasNext() && failure == null) {
+                Map<String, String> row = readRow(rows, results, summary);
+                if (row == null) {
+                    continue;
+                }
+                int line = rows.getLineNumber();
+                long start = System.nanoTime();
+                inFlight.acquire();
+                pending.add(executor.submit(name, context -> {
+                    reset(context.getDriver());
+                    runRow(row, line, task, name, results, summary, false);
+                    return null;
+                }, done -> {
+                    try {
+                        recordTaskFailure(done, row, line, name, results, summary, start);
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+                failure = removeDone(pending);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while running the rows of " + name);
+        }
+        if (failure == null) {
+            failure = removeDone(pending);
+        }
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        if (failure != null) {
+            throw new IOException("A row task of " + name + " failed: " + failure.getMessage(), failure);
+        }
+    }
+
+    /**
+     * Reads the next row of the data file. A row that cannot be parsed is recorded as a failed row
+     * in the summary and the results file, and the run goes on with the rows after it.
+     *
+     * @param rows    The rows of the data file.
+     * @param results The results file.
+     * @param summary The outcome of the run.
+     * @return The values of the row by column name, or null if the row could not be parsed.
+     * @throws IOException If the result of a row that could not be parsed cannot be written.
+     */
+    private Map<String, String> readRow(CsvRows rows, Writer results, Summary summary) throws IOException {
+        try {
+            return rows.next();
+        } catch (IllegalArgumentException e) {
+            synchronized (summary) {
+                summary.add(rows.getLineNumber(), e.getMessage());
+                writeResult(results, rows.getLineNumber(), Collections.emptyMap(), e.getMessage(), 0);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Records the row of a task that ended without recording it, i.e. one that failed before or
+     * after the row check, as a failed row.
+     *
+     * @param done    The completed future of the task.
+     * @param row     The values of the row by column name.
+     * @param line    The line of the row in the data file.
+     * @param name    The name of the data file, for the metrics.
+     * @param results The results file.
+     * @param summary The outcome of the run.
+     * @param start   The System.nanoTime() the row was submitted at.
+     */
+    private void recordTaskFailure(Future<Void> done, Map<String, String> row, int line, String name, Writer results,
+                                   Summary summary, long start) {
+        Throwable cause = getFailure(done);
+        if (cause == null || cause instanceof IOException) {
+            // Passed, or failed writing its result, which ends the run anyway
+            return;
+        }
+        try {
+            record(row, line, name, results, summary, String.valueOf(cause.getMessage()).split("\n")[0],
+                    System.nanoTime() - start);
+        } catch (IOException e) {
+            System.err.println("Error writing the result of line " + line + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Removes the tasks that are done from the pending ones.
+     *
+     * @param pending The submitted tasks.
+     * @return The failure of the first of them that did not complete normally, or null.
+     */
+    private static Throwable removeDone(List<Future<Void>> pending) {
+        Throwable failure = null;
+        for (Iterator<Future<Void>> iterator = pending.iterator(); iterator.hasNext(); ) {
+            Future<Void> future = iterator.next();
+            if (future.isDone()) {
+                iterator.remove();
+                if (failure == null) {
+                    failure = getFailure(future);
+                }
+            }
+        }
+        return failure;
+    }
+
+    /**
+     * Gets the failure of a task that is done.
+     *
+     * @param done The completed future of the task.
+     * @return The exception the task ended with, or null if it completed normally.
+     */
+    private static Throwable getFailure(Future<Void> done) {
+        try {
+            done.get();
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (CancellationException | InterruptedException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Runs one row and records its result.
+     *
+     * @param row               The values of the row by column name.
+     * @param line              The line of the row in the data file.
+     * @param task              The check to run.
+     * @param name              The name of the data file, for the metrics.
+     * @param results           The results file.
+     * @param summary           The outcome of the run.
+     * @param stopOnLostSession Whether a browser session that has gone away stops the run instead of failing the row.
+     * @throws IOException If the result cannot be written.
+     */
+    private void runRow(Map<String, String> row, int line, RowTask task, String name, Writer results, Summary summary,
+                        boolean stopOnLostSession) throws IOException {
+        long start = System.nanoTime();
+        String error = null;
+        try {
+            task.run(row);
+        } catch (NoSuchSessionException | NoSuchWindowException e) {
+            if (stopOnLostSession) {
+                throw e;
+            }
+            error = String.valueOf(e.getMessage()).split("\n")[0];
+        } catch (Exception | AssertionError e) {
+            error = String.valueOf(e.getMessage()).split("\n")[0];
+        }
+        record(row, line, name, results, summary, error, System.nanoTime() - start);
+    }
+
+    /**
+     * Records the result of a row in the metrics, the summary and the results file.
+     *
+     * @param row     The values of the row by column name.
+     * @param line    The line of the row in the data file.
+     * @param name    The name of the data file, for the metrics.
+     * @param results The results file.
+     * @param summary The outcome of the run.
+     * @param error   The first line of the failure, or null if the row passed.
+     * @param elapsed How long the row took, in nanoseconds.
+     * @throws IOException If the result cannot be written.
+     */
+    private void record(Map<String, String> row, int line, String name, Writer results, Summary summary,
+                        String error, long elapsed) throws IOException {
+        Metrics.record(Metrics.STEP, "data:" + name, elapsed);
+        synchronized (summary) {
+            summary.add(line, error);
+            writeResult(results, line, row, error, elapsed);
+        }
+    }
+
+    /**
+     * Gets the number of rows run at the same time from -Ddata.workers (default 1). With the driver
+     * pool on it is capped at the pool size less the browser the scenario itself holds.
+     *
+     * @return The number of rows in flight; 1 runs the rows in the scenario's own browser.
+     */
+    private static int getWorkers() {
+        int workers = Math.max(1, Integer.getInteger("data.workers", 1));
+        DriverFactory driverFactory = DriverFactory.getInstance();
+        if (workers > 1 && driverFactory.isPoolingEnabled()) {
+            int free = driverFactory.getPool().getMaxSize() - 1;
+            if (free < workers) {
+                System.err.printf("data.workers=%d needs a larger pool.maxSize than %d, running %d rows at a time.%n",
+                        workers, driverFactory.getPool().getMaxSize(), Math.max(1, free));
+                workers = Math.max(1, free);
+            }
+        }
+        return workers;
+    }
+
+    /**
+     * Resets the session between rows: cookies and storage are cleared, consent cookies seeded again
+     * and the start page loaded. The browser itself is kept.
+     *
+     * @param driver The driver of the scenario.
+     */
+    private void reset(WebDriver driver) {
+        driver.manage().deleteAllCookies();
+        if (driver instanceof JavascriptExecutor) {
+            ((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE_SCRIPT);
+        }
+        RequestInterception interception = RequestInterception.forDriver(driver);
+        if (interception != null) {
+            interception.seedConsentCookies(driver, startUrl);
+        }
+        Navigator.navigateTo(driver, startUrl, readiness);
+    }
+
+    /**
+     * Appends the result of a row to the results file. Columns whose name contains "password" are masked.
+     *
+     * @param results The results file.
+     * @param line    The line of the row in the data file.
+     * @param row     The values of the row.
+     * @param error   The first line of the failure, or null if the row passed.
+     * @param nanos   How long the row took.
+     * @throws IOException If the result cannot be written.
+     */
+    private void writeResult(Writer results, int line, Map<String, String> row, String error, long nanos) throws IOException {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Map.Entry<String, String> column : row.entrySet()) {
+            values.put(column.getKey(), column.getKey().toLowerCase().contains("password") ? "***" : column.getValue());
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("line", line);
+        result.put("status", error == null ? "passed" : "failed");
+        result.put("durationNanos", nanos);
+        result.put("values", values);
+        if (error != null) {
+            result.put("error", error);
+        }
+        StringBuilder text = new StringBuilder();
+        try (JsonOutput output = json.newOutput(text)) {
+            output.setPrettyPrint(false);
+            output.write(result);
+        }
+        results.write(text.append('\n').toString());
+        results.flush();
+    }
+
+    /**
+     * The outcome of a data-driven run: row counts and the first failures.
+     */
+    public static final class Summary {
+
+        private final Path dataFile;
+        private final Path resultsFile;
+        private final List<String> failures = new ArrayList<>();
+        private int rows;
+        private int failed;
+
+        private Summary(Path dataFile, Path resultsFile) {
+            this.dataFile = dataFile;
+            this.resultsFile = resultsFile;
+        }
+
+        private void add(int line, String error) {
+            rows++;
+            if (error != null) {
+                failed++;
+                if (failures.size() < MAX_FAILURES) {
+                    failures.add("line " + line + ": " + error);
+                }
+            }
+        }
+
+        /**
+         * Gets the file the result of each row was written to.
+         *
+         * @return The results file.
+         */
+        public Path getResultsFile() {
+            return resultsFile;
+        }
+
+        /**
+         * Gets the number of rows run.
+         *
+         * @return The number of rows.
+         */
+        public int getRows() {
+            return rows;
+        }
+
+        /**
+         * Gets the number of rows that failed.
+         *
+         * @return The number of failed rows.
+         */
+        public int getFailed() {
+            return failed;
+        }
+
+        /**
+         * Gets the first failures, one line each with the line of the row in the data file.
+         *
+         * @return The failures, at most 20.
+         */
+        public List<String> getFailures() {
+            return Collections.unmodifiableList(failures);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d rows, %d passed, %d failed, results in %s",
+                    dataFile.getFileName(), rows, rows - failed, failed, resultsFile);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package testBase;
+
+import enums.Browsers;
+import io.github.bonigarcia.wdm.WebDriverManager;
+import io.github.bonigarcia.wdm.config.Config;
+import io.github.bonigarcia.wdm.versions.VersionDetector;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DriverBinaryResolver class - This class resolves the driver binary (chromedriver, geckodriver,
+ * IEDriverServer) once per JVM and browser type and shares the result with every thread.
+ * Resolved binaries live in a pinned cache directory and are recorded in a lockfile that maps
+ * the browser version to the driver binary, so later runs never go back to the network. The version of
+ * the installed browser is detected locally on every run, so a browser upgrade gets a new lockfile entry
+ * and a matching driver instead of the stale one.
+ * With -Ddrivers.offline=true only the lockfile is used and a missing entry is an error.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public class DriverBinaryResolver {
+
+    // Singleton instance of DriverBinaryResolver
+    private static final DriverBinaryResolver instance = new DriverBinaryResolver();
+
+    private static final String LOCK_FILE_NAME = "drivers.lock";
+    private static final String INSTALLED_BROWSER_VERSION = "installed";
+
+    private final Path cacheDirectory;
+    private final Path lockFile;
+    private final boolean offline;
+
+    // Resolved driver binary per browser type, filled once per JVM
+    private final Map<Browsers, String> resolvedDrivers = new ConcurrentHashMap<>();
+
+    // Private constructor to prevent instantiation
+    private DriverBinaryResolver() {
+        this.cacheDirectory = Paths.get(System.getProperty("drivers.cacheDir", ".drivers")).toAbsolutePath();
+        this.lockFile = cacheDirectory.resolve(LOCK_FILE_NAME);
+        this.offline = Boolean.getBoolean("drivers.offline");
+    }
+
+    /**
+     * Provides the global point of access to the Singleton instance of DriverBinaryResolver.
+     *
+     * @return The Singleton instance of DriverBinaryResolver.
+     */
+    public static DriverBinaryResolver getInstance() {
+        return instance;
+    }
+
+    /**
+     * Resolves the driver binary for the given browser and exports it as the matching
+     * webdriver.*.driver system property. Only the first call per browser type does any work;
+     * concurrent callers wait for it and then share the result.
+     *
+     * @param browser The browser whose driver binary is needed.
+     * @return The absolute path of the driver binary.
+     * @throws IllegalStateException If the binary cannot be resolved, or is not in the lockfile in offline mode.
+     */
+    public String resolve(Browsers browser) {
+        if (browser == null) {
+            throw new IllegalArgumentException("Browser type cannot be null.");
+        }
+        return resolvedDrivers.computeIfAbsent(browser, this::resolveOnce);
+    }
+
+    /**
+     * Resolves the driver binary from the lockfile, or through WebDriverManager when the lockfile
+     * has no usable entry, and logs how long the resolution took.
+     *
+     * @param browser The browser whose driver binary is needed.
+     * @return The absolute path of the driver binary.
+     */
+    private String resolveOnce(Browsers browser) {
+        long start = System.nanoTime();
+        String browserName = browser.name().toLowerCase();
+        String browserVersion = System.getProperty("drivers." + browserName + ".browserVersion");
+        if (browserVersion == null) {
+            browserVersion = detectInstalledVersion(browserName);
+        }
+        String lockKey = browserName + "." + browserVersion;
+
+        String source = "lockfile";
+        String driverPath = readLockedDriver(lockKey);
+        if (driverPath == null) {
+            if (offline) {
+                throw new IllegalStateException("Offline driver resolution failed: no cached " + browser
+                        + " driver for browser version '" + browserVersion + "' in " + lockFile
+                        + ". Run once without -Ddrivers.offline=true to populate the cache.");
+            }
+            driverPath = download(browser, browserVersion);
+            writeLockedDriver(lockKey, driverPath);
+            source = "download";
+        }
+
+        System.setProperty(getDriverProperty(browser), driverPath);
+        System.out.printf("Resolved %s driver from %s in %d ms: %s%n",
+                browser, source, (System.nanoTime() - start) / 1_000_000, driverPath);
+        return driverPath;
+    }
+
+    /**
+     * Detects the major version of the installed browser from the shell, as WebDriverManager does,
+     * without going to the network.
+     *
+     * @param browserName The lower case browser name, e.g. "chrome".
+     * @return The major version, e.g. "126", or "installed" if it cannot be detected, in which case
+     * the lockfile entry is not tied to a version.
+     */
+    private String detectInstalledVersion(String browserName) {
+        try {
+            Optional<String> version = new VersionDetector(new Config(), null).getBrowserVersionFromTheShell(browserName);
+            if (version.isPresent() && !version.get().isEmpty()) {
+                return VersionDetector.getMajorVersion(version.get());
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error detecting the installed " + browserName + " version: " + e.getMessage());
+        }
+        System.err.println("Could not detect the installed " + browserName + " version; the cached driver is not"
+                + " checked against browser upgrades. Pin it with -Ddrivers." + browserName + ".browserVersion.");
+        return INSTALLED_BROWSER_VERSION;
+    }
+
+    /**
+     * Downloads (or finds in the cache directory) the driver binary through WebDriverManager.
+     *
+     * @param browser        The browser whose driver binary is needed.
+     * @param browserVersion The pinned or detected browser version, or "installed" to let WebDriverManager detect it.
+     * @return The absolute path of the driver binary.
+     */
+    private String download(Browsers browser, String browserVersion) {
+        WebDriverManager manager = getManager(browser)
+                .cachePath(cacheDirectory.toString())
+                .resolutionCachePath(cacheDirectory.toString());
+        if (!INSTALLED_BROWSER_VERSION.equals(browserVersion)) {
+            manager.browserVersion(browserVersion);
+        }
+        manager.setup();
+        String driverPath = manager.getDownloadedDriverPath();
+        if (driverPath == null) {
+            throw new IllegalStateException("WebDriverManager could not resolve a " + browser + " driver.");
+        }
+        return driverPath;
+    }
+
+    /**
+     * Reads the driver binary recorded for the given key, ignoring entries whose file has gone.
+     *
+     * @param lockKey The browser and browser version key.
+     * @return The driver path, or null if there is no usable entry.
+     */
+    private synchronized String readLockedDriver(String lockKey) {
+        String driverPath = loadLockFile().getProperty(lockKey);
+        if (driverPath == null || !Files.isExecutable(Paths.get(driverPath))) {
+            return null;
+        }
+        return driverPath;
+    }
+
+    /**
+     * Records the driver binary for the given key, replacing the lockfile atomically.
+     *
+     * @param lockKey    The browser and browser version key.
+     * @param driverPath The driver path.
+     */
+    private synchronized void writeLockedDriver(String lockKey, String driverPath) {
+        Properties lock = loadLockFile();
+        lock.setProperty(lockKey, driverPath);
+        try {
+            Files.createDirectories(cacheDirectory);
+            Path tempFile = Files.createTempFile(cacheDirectory, LOCK_FILE_NAME, ".tmp");
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                lock.store(out, "Driver binaries by browser and browser version");
+            }
+            Files.move(tempFile, lockFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Error writing driver lockfile: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the lockfile, returning empty properties when it does not exist yet.
+     *
+     * @return The lockfile entries.
+     */
+    private Properties loadLockFile() {
+        Properties lock = new Properties();
+        if (Files.exists(lockFile)) {
+            try (InputStream in = Files.newInputStream(lockFile)) {
+                lock.load(in);
+            } catch (IOException e) {
+                System.err.println("Error reading driver lockfile: " + e.getMessage());
+            }
+        }
+        return lock;
+    }
+
+    /**
+     * Gets the WebDriverManager for the given browser type.
+     *
+     * @param browser The browser type.
+     * @return The matching WebDriverManager.
+     */
+    private WebDriverManager getManager(Browsers browser) {
+        switch (browser) {
+            case Chrome:
+                return WebDriverManager.chromedriver();
+            case Firefox:
+                return WebDriverManager.firefoxdriver();
+            case IE:
+                return WebDriverManager.iedriver();
+            default:
+                throw new IllegalArgumentException("No local driver binary for browser type: " + browser);
+        }
+    }
+
+    /**
+     * Gets the system property Selenium reads the driver binary location from.
+     *
+     * @param browser The browser type.
+     * @return The driver system property name.
+     */
+    private String getDriverProperty(Browsers browser) {
+        switch (browser) {
+            case Chrome:
+                return "webdriver.chrome.driver";
+            case Firefox:
+                return "webdriver.gecko.driver";
+            case IE:
+                return "webdriver.ie.driver";
+            default:
+                throw new IllegalArgumentException("No local driver binary for browser type: " + browser);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package testBase;
+
+import metrics.TraceRecorder;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * DriverContext class - This class holds the driver of one scenario as an object that can be handed
+ * to other threads, platform or virtual. The context is bound to the thread that runs the scenario,
+ * which keeps DriverFactory.getInstance().getDriver() working, and work handed to an executor is
+ * wrapped with {@link #wrap(Callable)} to carry the context along. The context also carries the trace
+ * of the scenario it was opened for, so the spans of that work go into the scenario's trace.
+ * A context hands its driver back exactly once, after which it refuses to give the driver out, so a
+ * page object that outlives its scenario can never drive the browser the pool gave to the next one.
+ * Contexts that are never closed, e.g. because the thread of an aborted scenario died, are discarded
+ * when the JVM shuts down.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public final class DriverContext implements AutoCloseable {
+
+    // Context bound to the current thread
+    private static final ThreadLocal<DriverContext> CURRENT = new ThreadLocal<>();
+
+    // Contexts that were opened and have not been closed yet
+    private static final Set<DriverContext> OPEN = ConcurrentHashMap.newKeySet();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverContext::discardAll, "driver-context-shutdown"));
+    }
+
+    private final String name;
+    private final WebDriver driver;
+    private final Consumer<WebDriver> onRelease;
+    private final Consumer<WebDriver> onDiscard;
+    private final TraceRecorder.ScenarioTrace trace;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * A binding of a context to a thread, undone on close.
+     */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    // Private constructor, contexts are opened with open()
+    private DriverContext(String name, WebDriver driver, Consumer<WebDriver> onRelease, Consumer<WebDriver> onDiscard) {
+        this.name = name;
+        this.driver = driver;
+        this.onRelease = onRelease;
+        this.onDiscard = onDiscard;
+        this.trace = TraceRecorder.current();
+    }
+
+    /**
+     * Opens a context for a driver. The context is not bound to any thread yet; it takes the
+     * trace of the scenario running on the current thread, if any.
+     *
+     * @param name      The name of the context, e.g. the scenario it belongs to.
+     * @param driver    The driver of the scenario.
+     * @param onRelease Hands the driver back when the scenario ends normally, e.g. to the pool.
+     * @param onDiscard Gets rid of the driver when the scenario was aborted or the driver is broken.
+     * @return The open context.
+     */
+    public static DriverContext open(String name, WebDriver driver, Consumer<WebDriver> onRelease, Consumer<WebDriver> onDiscard) {
+        if (driver == null || onRelease == null || onDiscard == null) {
+            throw new IllegalArgumentException("Driver and its release and discard actions cannot be null.");
+        }
+        DriverContext context = new DriverContext(name, driver, onRelease, onDiscard);
+        OPEN.add(context);
+        return context;
+    }
+
+    /**
+     * Gets the context bound to the current thread.
+     *
+     * @return The context of the current thread, or null if none is bound. The context may
+     *         already be closed when it was closed from another thread.
+     */
+    public static DriverContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Gets the driver of the context.
+     *
+     * @return The WebDriver instance.
+     * @throws IllegalStateException if the context is closed.
+     */
+    public WebDriver getDriver() {
+        // Guard clause to stop a closed context from handing out a driver it no longer owns
+        if (closed.get()) {
+            throw new IllegalStateException("Driver context " + name + " is closed. Its driver may belong to another scenario now.");
+        }
+        return driver;
+    }
+
+    /**
+     * Indicates whether the driver of the context has been handed back.
+     *
+     * @return true if the context is closed.
+     */
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * Binds the context and its scenario trace to the current thread until the returned scope is
+     * closed, which restores the context and trace that were bound before.
+     *
+     * @return The scope of the binding.
+     */
+    public Scope bind() {
+        DriverContext previous = CURRENT.get();
+        CURRENT.set(this);
+        TraceRecorder.Scope traceScope = TraceRecorder.bind(trace);
+        return () -> {
+            traceScope.close();
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Wraps a task so that it runs with this context bound, on whichever thread runs it.
+     *
+     * @param task The task.
+     * @param <T>  The result type of the task.
+     * @return The wrapped task.
+     */
+    public <T> Callable<T> wrap(Callable<T> task) {
+        return () -> {
+            try (Scope scope = bind()) {
+                return task.call();
+            }
+        };
+    }
+
+    /**
+     * Hands the driver back, e.g. to the pool. Only the first close or discard has any effect.
+     */
+    @Override
+    public void close() {
+        end(onRelease);
+    }
+
+    /**
+     * Gets rid of the driver instead of handing it back for reuse, for scenarios that were aborted
+     * and drivers that are broken. Only the first close or discard has any effect.
+     */
+    public void discard() {
+        end(onDiscard);
+    }
+
+    @Override
+    public String toString() {
+        return "DriverContext[" + name + (closed.get() ? ", closed]" : "]");
+    }
+
+    /**
+     * Ends the context once and unbinds it from the current thread.
+     *
+     * @param action What to do with the driver.
+     */
+    private void end(Consumer<WebDriver> action) {
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            action.accept(driver);
+        } finally {
+            OPEN.remove(this);
+        }
+    }
+
+    /**
+     * Discards the drivers of all contexts that were never closed.
+     */
+    private static void discardAll() {
+        List<DriverContext> leaked = new ArrayList<>(OPEN);
+        for (DriverContext context : leaked) {
+            System.err.println("Discarding the driver of " + context + ", which was never closed.");
+            try {
+                context.discard();
+            } catch (RuntimeException e) {
+                System.err.println("Error discarding the driver of " + context + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package testBase;
 
+import enums.Browsers;
 import org.openqa.selenium.WebDriver;
 
+import java.net.MalformedURLException;
+
 /**
  * DriverFactory class - This class implements the Singleton design pattern to manage
  * WebDriver instances across the application. It also uses the Factory design pattern
- * to create WebDriver instances.
+ * to create WebDriver instances, either directly or leased from a {@link DriverPool}. The driver of
+ * each scenario is held in a {@link DriverContext} bound to the thread that runs the scenario.
  * Author: Rob Thomson
  * Date: 06/06/2024
  */
@@ -14,8 +18,11 @@ public class DriverFactory {
     // Singleton instance of DriverFactory
     private static final DriverFactory instance = new DriverFactory();
 
-    // ThreadLocal to manage WebDriver instances in a multi-threaded environment
-    private ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+    // Pool of reusable drivers, created on first lease
+    private volatile DriverPool pool;
+
+    // Background provisioner of pre-warmed drivers, created on first lease when -Dprewarm is set
+    private volatile DriverProvisioner provisioner;
 
     // Private constructor to prevent instantiation
     private DriverFactory() {
@@ -31,17 +38,18 @@ public class DriverFactory {
     }
 
     /**
-     * Sets the WebDriver instance for the current thread.
+     * Sets the WebDriver instance for the current thread, in a new {@link DriverContext}
+     * that closes and quits the driver when it ends.
      *
      * @param driverParam The WebDriver instance to be set.
      * @throws IllegalStateException if a WebDriver instance is already set.
      */
     public void setDriver(WebDriver driverParam) {
         // Guard clause to check if a driver is already set
-        if (driver.get() != null) {
+        if (hasContext()) {
             throw new IllegalStateException("Driver is already set. Cannot set a new driver.");
         }
-        driver.set(driverParam);
+        DriverContext.open("created", driverParam, DriverFactory::quit, DriverFactory::quit).bind();
     }
 
     /**
@@ -51,25 +59,210 @@ public class DriverFactory {
      * @throws IllegalStateException if the WebDriver instance is not set.
      */
     public WebDriver getDriver() {
+        return getContext().getDriver();
+    }
+
+    /**
+     * Gets the driver context of the current thread, to hand the driver of the scenario to
+     * another thread with {@link DriverContext#wrap(java.util.concurrent.Callable)}.
+     *
+     * @return The driver context.
+     * @throws IllegalStateException if the WebDriver instance is not set.
+     */
+    public DriverContext getContext() {
         // Guard clause to check if a driver is set before getting it
-        if (driver.get() == null) {
+        if (!hasContext()) {
             throw new IllegalStateException("Driver is not set. Call setDriver() before getting the driver.");
         }
-        return driver.get();
+        return DriverContext.current();
     }
 
     /**
-     * Closes and quits the WebDriver instance for the current thread and removes it from ThreadLocal.
+     * Closes and quits the WebDriver instance for the current thread and removes its context.
+     * A leased driver is discarded from the pool.
      *
      * @throws IllegalStateException if the WebDriver instance is not set.
      */
     public void closeDriver() {
         // Guard clause to check if a driver is set before closing/quitting
-        if (driver.get() == null) {
+        if (!hasContext()) {
             throw new IllegalStateException("Driver is not set. Call setDriver() before closing/quitting the driver.");
         }
-        driver.get().close();
-        driver.get().quit();
-        driver.remove();
+        DriverContext.current().discard();
+    }
+
+    /**
+     * Indicates whether drivers are leased from the pool. Pooling is on by default
+     * and can be switched off with -Dpool=false.
+     *
+     * @return true if drivers should be leased from the pool.
+     */
+    public boolean isPoolingEnabled() {
+        return !"false".equalsIgnoreCase(System.getProperty("pool"));
+    }
+
+    /**
+     * Leases a driver of the given browser type from the pool and sets it for the current thread.
+     *
+     * @param browser The type of browser to lease.
+     * @throws MalformedURLException If an error occurs while creating a new browser instance.
+     * @throws IllegalStateException if a WebDriver instance is already set.
+     */
+    public void leaseDriver(Browsers browser) throws MalformedURLException {
+        // Guard clause to check if a driver is already set
+        if (hasContext()) {
+            throw new IllegalStateException("Driver is already set. Cannot lease a new driver.");
+        }
+        openLeasedContext("pooled", getPool().lease(browser)).bind();
+    }
+
+    /**
+     * Takes a pre-warmed driver of the given browser type, already on the base page, and sets it
+     * for the current thread. Pre-warming starts on the first call; it is enabled with
+     * -Dprewarm=N, the number of browsers kept ready per worker.
+     *
+     * @param browser The type of browser to take.
+     * @return true if a pre-warmed driver was set, false if none was ready (or pre-warming is off)
+     *         and the caller has to lease and prepare a driver itself.
+     * @throws IllegalStateException if a WebDriver instance is already set.
+     */
+    public boolean leasePrewarmedDriver(Browsers browser) {
+        // Guard clause to check if a driver is already set
+        if (hasContext()) {
+            throw new IllegalStateException("Driver is already set. Cannot lease a new driver.");
+        }
+        if (getPrewarmCount() < 1) {
+            return false;
+        }
+        WebDriver prewarmed = getProvisioner(browser).poll();
+        if (prewarmed == null) {
+            return false;
+        }
+        openLeasedContext("prewarmed", prewarmed).bind();
+        return true;
+    }
+
+    /**
+     * Hands the driver of the current thread back to the pool and removes its context.
+     *
+     * @throws IllegalStateException if the WebDriver instance is not set.
+     */
+    public void releaseDriver() {
+        // Guard clause to check if a driver is set before releasing it
+        if (!hasContext()) {
+            throw new IllegalStateException("Driver is not set. Call leaseDriver() before releasing the driver.");
+        }
+        DriverContext.current().close();
+    }
+
+    /**
+     * Opens a driver context that is not bound to any thread, leasing the driver from the pool
+     * (or creating it when pooling is disabled). Blocks while the pool is exhausted. Used by
+     * {@link ScenarioExecutor} to give each scenario task its own driver.
+     *
+     * @param browser The type of browser.
+     * @param name    The name of the context, e.g. the scenario it belongs to.
+     * @return The open context, which the caller must close.
+     * @throws MalformedURLException If an error occurs while creating a new browser instance.
+     */
+    public DriverContext openContext(Browsers browser, String name) throws MalformedURLException {
+        if (!isPoolingEnabled()) {
+            return DriverContext.open(name, new BrowserFactory().createBrowserInstance(browser),
+                    DriverFactory::quit, DriverFactory::quit);
+        }
+        return openLeasedContext(name, getPool().lease(browser));
+    }
+
+    /**
+     * Gets the driver pool, creating it on first use. The pool is sized with -Dpool.maxSize
+     * (default one per worker for each browser type, plus room for the pre-warmed drivers) and
+     * -Dpool.maxReuses (default 50), and its idle drivers are quit when the JVM shuts down.
+     *
+     * @return The driver pool.
+     */
+    public DriverPool getPool() {
+        if (pool == null) {
+            synchronized (this) {
+                if (pool == null) {
+                    int workers = Math.max(1, Integer.getInteger("workers", 1));
+                    DriverPool created = new DriverPool(new BrowserFactory(),
+                            Integer.getInteger("pool.maxSize", workers * (1 + getPrewarmCount())),
+                            Integer.getInteger("pool.maxReuses", 50),
+                            Long.getLong("pool.leaseTimeoutSeconds", 300));
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                        created.shutdown();
+                        System.out.println(created);
+                    }, "driver-pool-shutdown"));
+                    pool = created;
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Gets the provisioner of pre-warmed drivers, creating and starting it on first use. It keeps
+     * -Dprewarm drivers per worker ready and hands the unused ones back when the JVM shuts down.
+     *
+     * @param browser The type of browser to pre-warm.
+     * @return The driver provisioner.
+     */
+    private DriverProvisioner getProvisioner(Browsers browser) {
+        if (provisioner == null) {
+            synchronized (this) {
+                if (provisioner == null) {
+                    int workers = Math.max(1, Integer.getInteger("workers", 1));
+                    DriverProvisioner created = new DriverProvisioner(getPool(), browser,
+                            Environment.getBaseUrl(), workers * getPrewarmCount());
+                    created.start();
+                    Runtime.getRuntime().addShutdownHook(new Thread(created::shutdown, "driver-provisioner-shutdown"));
+                    provisioner = created;
+                }
+            }
+        }
+        return provisioner;
+    }
+
+    /**
+     * Gets the number of pre-warmed drivers to keep ready per worker (-Dprewarm, default 0: off).
+     *
+     * @return The number of pre-warmed drivers per worker.
+     */
+    private int getPrewarmCount() {
+        return Math.max(0, Integer.getInteger("prewarm", 0));
+    }
+
+    /**
+     * Indicates whether the current thread has an open driver context. A context that was
+     * closed from another thread no longer counts.
+     *
+     * @return true if a driver is set for the current thread.
+     */
+    private boolean hasContext() {
+        DriverContext context = DriverContext.current();
+        return context != null && !context.isClosed();
+    }
+
+    /**
+     * Opens a context for a driver leased from the pool, which goes back to the pool when the
+     * context is closed and is discarded from it when the context is discarded.
+     *
+     * @param name   The name of the context.
+     * @param leased The leased driver.
+     * @return The open context.
+     */
+    private DriverContext openLeasedContext(String name, WebDriver leased) {
+        DriverPool leasedFrom = getPool();
+        return DriverContext.open(name, leased, leasedFrom::release, leasedFrom::discard);
+    }
+
+    /**
+     * Closes and quits a driver that was not leased from the pool.
+     *
+     * @param driver The driver to quit.
+     */
+    private static void quit(WebDriver driver) {
+        driver.close();
+        driver.quit();
     }
-}
\ No newline at end of file
+}
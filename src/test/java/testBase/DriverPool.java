@@ -0,0 +1,325 @@
+package testBase;
+
+import enums.Browsers;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.net.MalformedURLException;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DriverPool class - This class keeps a bounded pool of live WebDriver instances per browser type
+ * so that scenarios can lease an already started browser instead of launching a new one.
+ * Drivers are reset (cookies, storage, extra windows, about:blank) when they are handed back,
+ * health checked before they are leased again and retired after a maximum number of reuses.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public class DriverPool {
+
+    private static final String BLANK_PAGE = "about:blank";
+    private static final String CLEAR_STORAGE_SCRIPT =
+            "try { window.localStorage.clear(); } catch (e) {}"
+                    + "try { window.sessionStorage.clear(); } catch (e) {}";
+
+    private final BrowserFactory browserFactory;
+    private final int maxSize;
+    private final int maxReuses;
+    private final long leaseTimeoutSeconds;
+
+    // Idle drivers and creation permits, kept separately for each browser type
+    private final Map<Browsers, Deque<PooledDriver>> idleDrivers = new ConcurrentHashMap<>();
+    private final Map<Browsers, Semaphore> permits = new ConcurrentHashMap<>();
+
+    // Drivers that are currently leased out to a scenario
+    private final Map<WebDriver, PooledDriver> leasedDrivers = new ConcurrentHashMap<>();
+
+    private final AtomicLong leases = new AtomicLong();
+    private final AtomicLong reuses = new AtomicLong();
+    private final AtomicLong creations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Constructor for the DriverPool class.
+     *
+     * @param browserFactory      The factory used to start new browsers when the pool has no idle driver.
+     * @param maxSize             The maximum number of live drivers per browser type.
+     * @param maxReuses           The maximum number of times a driver is leased before it is retired.
+     * @param leaseTimeoutSeconds How long a lease waits for a free slot when the pool is exhausted.
+     */
+    public DriverPool(BrowserFactory browserFactory, int maxSize, int maxReuses, long leaseTimeoutSeconds) {
+        if (browserFactory == null) {
+            throw new IllegalArgumentException("Browser factory cannot be null.");
+        }
+        if (maxSize < 1 || maxReuses < 1) {
+            throw new IllegalArgumentException("Pool size and maximum reuses must be at least 1.");
+        }
+        this.browserFactory = browserFactory;
+        this.maxSize = maxSize;
+        this.maxReuses = maxReuses;
+        this.leaseTimeoutSeconds = leaseTimeoutSeconds;
+    }
+
+    /**
+     * Leases a driver of the given browser type. An idle driver is reused when it passes the
+     * health check, otherwise a new browser is started. Blocks while the pool is exhausted.
+     *
+     * @param browser The type of browser to lease.
+     * @return A live WebDriver instance that must be handed back with {@link #release(WebDriver)}.
+     * @throws MalformedURLException If an error occurs while creating a new browser instance.
+     * @throws IllegalStateException If no driver becomes available within the lease timeout.
+     */
+    public WebDriver lease(Browsers browser) throws MalformedURLException {
+        if (browser == null) {
+            throw new IllegalArgumentException("Browser type cannot be null.");
+        }
+        Semaphore slot = permits.computeIfAbsent(browser, key -> new Semaphore(maxSize, true));
+        acquire(slot, browser);
+
+        try {
+            PooledDriver pooled = takeHealthyIdleDriver(browser);
+            if (pooled != null) {
+                reuses.incrementAndGet();
+            } else {
+                pooled = new PooledDriver(browser, browserFactory.createBrowserInstance(browser));
+                creations.incrementAndGet();
+            }
+            pooled.uses++;
+            leasedDrivers.put(pooled.driver, pooled);
+            leases.incrementAndGet();
+            return pooled.driver;
+        } catch (MalformedURLException | RuntimeException e) {
+            slot.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Hands a leased driver back to the pool. The driver is reset and kept for the next lease,
+     * or evicted when the reset fails or the driver has reached its maximum number of reuses.
+     *
+     * @param driver The driver previously returned by {@link #lease(Browsers)}.
+     * @throws IllegalStateException if the driver was not leased from this pool.
+     */
+    public void release(WebDriver driver) {
+        PooledDriver pooled = removeLeased(driver);
+        try {
+            if (pooled.uses >= maxReuses || !reset(pooled.driver)) {
+                evict(pooled);
+            } else {
+                idleDrivers.computeIfAbsent(pooled.browser, key -> new ConcurrentLinkedDeque<>()).offerFirst(pooled);
+            }
+        } finally {
+            permits.get(pooled.browser).release();
+        }
+    }
+
+    /**
+     * Removes a leased driver from the pool without reusing it, e.g. after its session crashed.
+     *
+     * @param driver The driver previously returned by {@link #lease(Browsers)}.
+     * @throws IllegalStateException if the driver was not leased from this pool.
+     */
+    public void discard(WebDriver driver) {
+        PooledDriver pooled = removeLeased(driver);
+        try {
+            evict(pooled);
+        } finally {
+            permits.get(pooled.browser).release();
+        }
+    }
+
+    /**
+     * Quits every idle driver. Leased drivers are left to their owners.
+     */
+    public void shutdown() {
+        for (Deque<PooledDriver> idle : idleDrivers.values()) {
+            PooledDriver pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                quitQuietly(pooled.driver);
+            }
+        }
+    }
+
+    /**
+     * @return The maximum number of live drivers per browser type.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return The total number of leases handed out by the pool.
+     */
+    public long getLeaseCount() {
+        return leases.get();
+    }
+
+    /**
+     * @return The number of leases served by an already running driver.
+     */
+    public long getReuseCount() {
+        return reuses.get();
+    }
+
+    /**
+     * @return The number of browsers started by the pool.
+     */
+    public long getCreationCount() {
+        return creations.get();
+    }
+
+    /**
+     * @return The number of drivers quit because they crashed, failed to reset or reached their reuse limit.
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DriverPool[leases=%d, reuses=%d, creations=%d, evictions=%d]",
+                getLeaseCount(), getReuseCount(), getCreationCount(), getEvictionCount());
+    }
+
+    /**
+     * Waits for a free slot for the given browser type.
+     *
+     * @param slot    The semaphore guarding the browser type.
+     * @param browser The browser type, used for the error message.
+     */
+    private void acquire(Semaphore slot, Browsers browser) {
+        try {
+            if (!slot.tryAcquire(leaseTimeoutSeconds, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("No " + browser + " driver became available within "
+                        + leaseTimeoutSeconds + " seconds. Pool size is " + maxSize + ".");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a " + browser + " driver.", e);
+        }
+    }
+
+    /**
+     * Takes the most recently used idle driver that still responds, evicting crashed ones on the way.
+     *
+     * @param browser The type of browser to look for.
+     * @return A healthy idle driver, or null if there is none.
+     */
+    private PooledDriver takeHealthyIdleDriver(Browsers browser) {
+        Deque<PooledDriver> idle = idleDrivers.get(browser);
+        if (idle == null) {
+            return null;
+        }
+        PooledDriver pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isHealthy(pooled.driver)) {
+                return pooled;
+            }
+            evict(pooled);
+        }
+        return null;
+    }
+
+    /**
+     * Removes the driver from the leased drivers map.
+     *
+     * @param driver The leased driver.
+     * @return The pool entry of the driver.
+     */
+    private PooledDriver removeLeased(WebDriver driver) {
+        PooledDriver pooled = driver == null ? null : leasedDrivers.remove(driver);
+        if (pooled == null) {
+            throw new IllegalStateException("Driver was not leased from this pool.");
+        }
+        return pooled;
+    }
+
+    /**
+     * Checks that the browser session is still alive.
+     *
+     * @param driver The driver to check.
+     * @return true if the session answers with at least one window.
+     */
+    private boolean isHealthy(WebDriver driver) {
+        try {
+            return !driver.getWindowHandles().isEmpty();
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Resets the browser to a clean state: extra windows closed, cookies and storage cleared
+     * and the remaining window on about:blank.
+     *
+     * @param driver The driver to reset.
+     * @return true if the reset succeeded.
+     */
+    private boolean reset(WebDriver driver) {
+        try {
+            Set<String> handles = driver.getWindowHandles();
+            String mainHandle = handles.iterator().next();
+            for (String handle : handles) {
+                if (!handle.equals(mainHandle)) {
+                    driver.switchTo().window(handle).close();
+                }
+            }
+            driver.switchTo().window(mainHandle);
+            driver.manage().deleteAllCookies();
+            if (driver instanceof JavascriptExecutor) {
+                ((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE_SCRIPT);
+            }
+            driver.navigate().to(BLANK_PAGE);
+            return true;
+        } catch (WebDriverException e) {
+            System.err.println("Error resetting pooled driver: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Quits the driver and counts the eviction.
+     *
+     * @param pooled The pool entry to evict.
+     */
+    private void evict(PooledDriver pooled) {
+        evictions.incrementAndGet();
+        quitQuietly(pooled.driver);
+    }
+
+    /**
+     * Quits the driver, ignoring errors from sessions that have already gone away.
+     *
+     * @param driver The driver to quit.
+     */
+    private void quitQuietly(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (WebDriverException e) {
+            System.err.println("Error quitting pooled driver: " + e.getMessage());
+        }
+    }
+
+    /**
+     * A driver owned by the pool together with its browser type and use count.
+     */
+    private static final class PooledDriver {
+        private final Browsers browser;
+        private final WebDriver driver;
+        private int uses;
+
+        private PooledDriver(Browsers browser, WebDriver driver) {
+            this.browser = browser;
+            this.driver = driver;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package testBase;
+
+import enums.Browsers;
+import helpers.Navigator;
+import org.openqa.selenium.WebDriver;
+import pages.LoginPage;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DriverProvisioner class - This class keeps a number of browsers leased from the {@link DriverPool}
+ * fully started and already on the base page in the background, so that a scenario only has to take
+ * one that is ready. Pre-warming pauses while the machine is short of free memory or its CPU load is
+ * too high, and at most one browser per two cores is started at the same time. Pre-warmed browsers
+ * that were never taken are quit when the provisioner shuts down.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public class DriverProvisioner {
+
+    private static final long RESOURCE_CHECK_MILLIS = 500;
+
+    private final DriverPool pool;
+    private final Browsers browser;
+    private final String baseUrl;
+    private final long minFreeMemoryBytes;
+    private final double maxCpuLoad;
+
+    // Drivers that are on the base page and ready to be taken
+    private final BlockingDeque<WebDriver> ready = new LinkedBlockingDeque<>();
+
+    // One permit per driver that may be ready or being prepared
+    private final Semaphore slots;
+    private final List<Thread> warmers = new ArrayList<>();
+    private volatile boolean running;
+
+    /**
+     * Constructor for the DriverProvisioner class.
+     *
+     * @param pool    The pool the browsers are leased from.
+     * @param browser The type of browser to pre-warm.
+     * @param baseUrl The page the browsers are navigated to.
+     * @param size    The number of browsers to keep ready.
+     */
+    public DriverProvisioner(DriverPool pool, Browsers browser, String baseUrl, int size) {
+        if (pool == null || browser == null) {
+            throw new IllegalArgumentException("Pool and browser type cannot be null.");
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Number of pre-warmed browsers must be at least 1.");
+        }
+        this.pool = pool;
+        this.browser = browser;
+        this.baseUrl = baseUrl;
+        this.slots = new Semaphore(size);
+        this.minFreeMemoryBytes = Long.getLong("prewarm.minFreeMemoryMb", 512) * 1024 * 1024;
+        this.maxCpuLoad = Double.parseDouble(System.getProperty("prewarm.maxCpuLoad", "0.9"));
+        int launchers = Math.max(1, Math.min(size, Runtime.getRuntime().availableProcessors() / 2));
+        for (int i = 0; i < launchers; i++) {
+            Thread warmer = new Thread(this::warm, "driver-provisioner-" + (i + 1));
+            warmer.setDaemon(true);
+            warmers.add(warmer);
+        }
+    }
+
+    /**
+     * Starts pre-warming browsers in the background.
+     */
+    public void start() {
+        running = true;
+        warmers.forEach(Thread::start);
+    }
+
+    /**
+     * Takes a pre-warmed driver that is on the base page. The driver is leased from the pool and
+     * must be handed back to it like any other leased driver.
+     *
+     * @return A pre-warmed driver, or null if none is ready yet.
+     */
+    public WebDriver poll() {
+        WebDriver driver = ready.pollFirst();
+        if (driver != null) {
+            slots.release();
+        }
+        return driver;
+    }
+
+    /**
+     * Stops pre-warming and hands the browsers that were never taken back to the pool to be quit.
+     */
+    public void shutdown() {
+        running = false;
+        warmers.forEach(Thread::interrupt);
+        for (Thread warmer : warmers) {
+            try {
+                warmer.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        WebDriver driver;
+        while ((driver = ready.pollFirst()) != null) {
+            pool.discard(driver);
+        }
+    }
+
+    /**
+     * Loop of a warmer thread: waits for a free slot and for enough free resources, then leases a
+     * browser and puts it on the base page.
+     */
+    private void warm() {
+        while (running) {
+            try {
+                slots.acquire();
+            } catch (InterruptedException e) {
+                return;
+            }
+            boolean prepared = false;
+            try {
+                awaitResources();
+                WebDriver driver = pool.lease(browser);
+                try {
+                    prepare(driver);
+                    ready.offerLast(driver);
+                    prepared = true;
+                } catch (RuntimeException e) {
+                    pool.discard(driver);
+                    throw e;
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                System.err.println("Error pre-warming a " + browser + " driver: " + e.getMessage());
+                pause();
+            } finally {
+                if (!prepared) {
+                    slots.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Prepares a driver the way TestBase does: request counters reset, consent cookies seeded and
+     * the base page loaded.
+     *
+     * @param driver The driver to prepare.
+     */
+    private void prepare(WebDriver driver) {
+        RequestInterception interception = RequestInterception.forDriver(driver);
+        if (interception != null) {
+            interception.resetCounts();
+            interception.seedConsentCookies(driver, baseUrl);
+        }
+        Navigator.navigateTo(driver, baseUrl, LoginPage.readiness());
+    }
+
+    /**
+     * Waits while the machine has less free memory than -Dprewarm.minFreeMemoryMb or a higher
+     * CPU load than -Dprewarm.maxCpuLoad, so pre-warming never starves the running scenarios.
+     *
+     * @throws InterruptedException If the provisioner is shut down while waiting.
+     */
+    private void awaitResources() throws InterruptedException {
+        while (running && !hasFreeResources()) {
+            Thread.sleep(RESOURCE_CHECK_MILLIS);
+        }
+        if (!running) {
+            throw new InterruptedException("Provisioner was shut down.");
+        }
+    }
+
+    /**
+     * Checks the free physical memory and the CPU load of the machine. Values the JVM cannot
+     * provide do not hold pre-warming back.
+     *
+     * @return true if there is room for another browser.
+     */
+    @SuppressWarnings("deprecation")
+    private boolean hasFreeResources() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (!(os instanceof com.sun.management.OperatingSystemMXBean)) {
+            return true;
+        }
+        com.sun.management.OperatingSystemMXBean system = (com.sun.management.OperatingSystemMXBean) os;
+        double cpuLoad = system.getSystemCpuLoad();
+        return system.getFreePhysicalMemorySize() >= minFreeMemoryBytes && (cpuLoad < 0 || cpuLoad <= maxCpuLoad);
+    }
+
+    /**
+     * Waits a moment after a failed pre-warm before trying again.
+     */
+    private void pause() {
+        try {
+            Thread.sleep(RESOURCE_CHECK_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
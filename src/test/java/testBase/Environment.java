@@ -0,0 +1,48 @@
+package testBase;
+
+import enums.Targets;
+
+import static constants.Constants.LIVE_BASE_URL;
+
+/**
+ * Environment class - resolves the base URL of the application under test for the target selected
+ * with -Dtarget: the live test environment (default) or the embedded {@link LocalAppServer}, which is
+ * started on first use.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public final class Environment {
+
+    // Private constructor to prevent instantiation
+    private Environment() {
+    }
+
+    /**
+     * Gets the base URL (the login page) of the target application.
+     *
+     * @return The base URL.
+     */
+    public static String getBaseUrl() {
+        switch (getTarget()) {
+            case Local:
+                return LocalAppServer.getInstance().getBaseUrl();
+            case Live:
+            default:
+                return LIVE_BASE_URL;
+        }
+    }
+
+    /**
+     * Retrieves the target from the command line parameter -Dtarget (live or local).
+     *
+     * @return The target, live when the parameter is not set or blank.
+     */
+    public static Targets getTarget() {
+        String value = System.getProperty("target", "").trim();
+        if (value.isEmpty()) {
+            return Targets.Live;
+        }
+        String valueCapitalised = value.substring(0, 1).toUpperCase() + value.substring(1).toLowerCase();
+        return Targets.valueOf(valueCapitalised);
+    }
+}
@@ -0,0 +1,295 @@
+package testBase;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import constants.TestUsers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static constants.Constants.LOGIN_ERROR_MESSAGE;
+
+/**
+ * LocalAppServer class - embedded HTTP server that stands in for the application under test.
+ * It serves hand-written stand-ins for the login page and the dashboard from src/test/resources/fixtures
+ * on the loopback interface and emulates the login POST. The stand-ins carry the elements the framework
+ * locates but only approximate the live pages. In the login POST, the credentials of the test users in
+ * users.properties get a session cookie and a redirect to the dashboard, any other credentials get
+ * the login page with the login error. Latency can be injected into every response with
+ * -Dlocal.latencyMs and -Dlocal.jitterMs. The server is started once per JVM on first use and
+ * stopped when the JVM shuts down.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public class LocalAppServer {
+
+    /**
+     * Path of the login page, the same as on the live application.
+     */
+    public static final String LOGIN_PATH = "/login.aspx";
+
+    /**
+     * Path of the dashboard the login redirects to.
+     */
+    public static final String DASHBOARD_PATH = "/Dashboard.aspx";
+
+    private static final String FIXTURES = "/fixtures/";
+    private static final String SESSION_COOKIE = "ASP.NET_SessionId";
+    private static final String LOGIN_ERROR_PLACEHOLDER = "<!--LOGIN_ERROR-->";
+
+    // Singleton instance of LocalAppServer, started on first use
+    private static volatile LocalAppServer instance;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long latencyMillis;
+    private final long jitterMillis;
+
+    // Fixture pages, read once
+    private final String loginPage;
+    private final String dashboardPage;
+
+    // Session ids handed out by successful logins
+    private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+
+    // Private constructor to prevent instantiation
+    private LocalAppServer() throws IOException {
+        this.latencyMillis = Long.getLong("local.latencyMs", 0);
+        this.jitterMillis = Long.getLong("local.jitterMs", 0);
+        this.loginPage = readFixture("login.html");
+        this.dashboardPage = readFixture("dashboard.html");
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                Integer.getInteger("local.port", 0)), 0);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "local-app-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.createContext(LOGIN_PATH, this::handleLogin);
+        server.createContext(DASHBOARD_PATH, this::handleDashboard);
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Provides the global point of access to the Singleton instance of LocalAppServer,
+     * starting the server on first use.
+     *
+     * @return The running LocalAppServer.
+     */
+    public static LocalAppServer getInstance() {
+        if (instance == null) {
+            synchronized (LocalAppServer.class) {
+                if (instance == null) {
+                    try {
+                        LocalAppServer started = new LocalAppServer();
+                        started.server.start();
+                        Runtime.getRuntime().addShutdownHook(new Thread(started::stop, "local-app-server-shutdown"));
+                        instance = started;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Local application server could not be started.", e);
+                    }
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the URL of the login page on the local server, the local counterpart of Constants.LIVE_BASE_URL.
+     *
+     * @return The login page URL.
+     */
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + LOGIN_PATH;
+    }
+
+    /**
+     * Stops the server.
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Serves the login page on GET and emulates the login form on POST.
+     *
+     * @param exchange The HTTP exchange.
+     * @throws IOException If the response cannot be sent.
+     */
+    private void handleLogin(HttpExchange exchange) throws IOException {
+        injectLatency();
+        if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+            respond(exchange, 200, loginPage);
+            return;
+        }
+
+        Map<String, String> form = readForm(exchange);
+        if (!TestUsers.isValidLogin(form.get("email"), form.get("password"))) {
+            respond(exchange, 200, loginPage.replace(LOGIN_ERROR_PLACEHOLDER,
+                    "<div role=\"alert\" class=\"alert alert-danger\">" + LOGIN_ERROR_MESSAGE + "</div>"));
+            return;
+        }
+
+        String session = UUID.randomUUID().toString();
+        sessions.add(session);
+        exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + session + "; Path=/; HttpOnly");
+        redirect(exchange, DASHBOARD_PATH);
+    }
+
+    /**
+     * Serves the dashboard to a logged in session and redirects anyone else to the login page.
+     *
+     * @param exchange The HTTP exchange.
+     * @throws IOException If the response cannot be sent.
+     */
+    private void handleDashboard(HttpExchange exchange) throws IOException {
+        injectLatency();
+        String session = getSession(exchange);
+        if (session != null && sessions.contains(session)) {
+            respond(exchange, 200, dashboardPage);
+        } else {
+            redirect(exchange, LOGIN_PATH);
+        }
+    }
+
+    /**
+     * Waits for the configured latency plus a random jitter, as a remote server would.
+     */
+    private void injectLatency() {
+        long delay = latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Reads the url-encoded form of a POST request.
+     *
+     * @param exchange The HTTP exchange.
+     * @return The form values by field name.
+     * @throws IOException If the request body cannot be read.
+     */
+    private Map<String, String> readForm(HttpExchange exchange) throws IOException {
+        Map<String, String> form = new HashMap<>();
+        String body;
+        try (InputStream input = exchange.getRequestBody()) {
+            body = new String(readAll(input), StandardCharsets.UTF_8);
+        }
+        for (String pair : body.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                form.put(URLDecoder.decode(pair.substring(0, separator), "UTF-8"),
+                        URLDecoder.decode(pair.substring(separator + 1), "UTF-8"));
+            }
+        }
+        return form;
+    }
+
+    /**
+     * Gets the session id from the cookies of a request.
+     *
+     * @param exchange The HTTP exchange.
+     * @return The session id, or null if the request has none.
+     */
+    private String getSession(HttpExchange exchange) {
+        List<String> headers = exchange.getRequestHeaders().get("Cookie");
+        if (headers == null) {
+            return null;
+        }
+        for (String header : headers) {
+            for (String cookie : header.split(";")) {
+                String[] parts = cookie.trim().split("=", 2);
+                if (parts.length == 2 && parts[0].equals(SESSION_COOKIE)) {
+                    return parts[1];
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sends a page as the response of an exchange.
+     *
+     * @param exchange The HTTP exchange.
+     * @param status   The HTTP status code.
+     * @param page     The page content.
+     * @throws IOException If the response cannot be sent.
+     */
+    private void respond(HttpExchange exchange, int status, String page) throws IOException {
+        byte[] body = page.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    /**
+     * Sends a redirect (303 See Other, so the browser follows it with a GET).
+     *
+     * @param exchange The HTTP exchange.
+     * @param location The path to redirect to.
+     * @throws IOException If the response cannot be sent.
+     */
+    private void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().set("Location", location);
+        exchange.sendResponseHeaders(303, -1);
+        exchange.close();
+    }
+
+    /**
+     * Reads a fixture file from the classpath.
+     *
+     * @param fixture The fixture file name.
+     * @return The fixture content.
+     * @throws IOException If the fixture does not exist or cannot be read.
+     */
+    private static String readFixture(String fixture) throws IOException {
+        try (InputStream input = LocalAppServer.class.getResourceAsStream(FIXTURES + fixture)) {
+            if (input == null) {
+                throw new IOException("Fixture not found: " + fixture);
+            }
+            return new String(readAll(input), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Reads a stream to the end.
+     *
+     * @param input The stream.
+     * @return The bytes read.
+     * @throws IOException If the stream cannot be read.
+     */
+    private static byte[] readAll(InputStream input) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            content.write(buffer, 0, read);
+        }
+        return content.toByteArray();
+    }
+}
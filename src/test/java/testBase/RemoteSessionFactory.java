@@ -0,0 +1,203 @@
+package testBase;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.ConnectionFailedException;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.WebSocket;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * RemoteSessionFactory class - This class creates RemoteWebDriver sessions on a Selenium Grid or
+ * cloud hub given with -Dgrid.url (default a local Grid standalone on port 4444).
+ * All sessions share one HTTP client, so connections to the hub are reused. Session creation is
+ * retried with exponential backoff when the hub is unreachable, times out or is busy; other failures,
+ * such as invalid capabilities or credentials, fail at once. At most -Dgrid.maxPendingSessions session requests are in flight at the same time.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public class RemoteSessionFactory {
+
+    // Singleton instance of RemoteSessionFactory
+    private static final RemoteSessionFactory instance = new RemoteSessionFactory();
+
+    // Parts of the messages Selenium Grid and cloud hubs give when they have no free slot yet
+    private static final List<String> HUB_BUSY_MESSAGES = Arrays.asList(
+            "timed out", "timeout", "queue", "no available", "busy", "capacity", "all parallel", "try again");
+
+    private final String hubUrl;
+    private final int retries;
+    private final long backoffMillis;
+    private final Duration readTimeout;
+    private final Semaphore pendingSessions;
+
+    // HTTP client shared by all sessions, created on first use
+    private volatile HttpClient sharedClient;
+
+    // Private constructor to prevent instantiation
+    private RemoteSessionFactory() {
+        this.hubUrl = System.getProperty("grid.url", "http://localhost:4444");
+        this.retries = Integer.getInteger("grid.retries", 3);
+        this.backoffMillis = Long.getLong("grid.backoffMs", 1000);
+        this.readTimeout = Duration.ofSeconds(Long.getLong("grid.readTimeoutSeconds", 180));
+        this.pendingSessions = new Semaphore(Math.max(1, Integer.getInteger("grid.maxPendingSessions", 2)), true);
+    }
+
+    /**
+     * Provides the global point of access to the Singleton instance of RemoteSessionFactory.
+     *
+     * @return The Singleton instance of RemoteSessionFactory.
+     */
+    public static RemoteSessionFactory getInstance() {
+        return instance;
+    }
+
+    /**
+     * Indicates whether the hub is BrowserStack, which needs its own vendor capabilities.
+     *
+     * @return true if the hub URL points to BrowserStack.
+     */
+    public boolean isBrowserStack() {
+        return hubUrl.contains("browserstack.com");
+    }
+
+    /**
+     * Creates a session on the hub, retrying with exponential backoff and jitter when the failure is
+     * transient (see {@link #isTransient(WebDriverException)}).
+     * Waits while the maximum number of session requests is already in flight.
+     *
+     * @param capabilities The capabilities of the session.
+     * @return The RemoteWebDriver of the new session.
+     * @throws MalformedURLException      If -Dgrid.url is not a valid URL.
+     * @throws SessionNotCreatedException If the session could not be created after all retries.
+     * @throws WebDriverException         If session creation failed for a reason a retry cannot fix.
+     */
+    public WebDriver createSession(Capabilities capabilities) throws MalformedURLException {
+        ClientConfig config = ClientConfig.defaultConfig().baseUrl(new URL(hubUrl)).readTimeout(readTimeout);
+        try {
+            pendingSessions.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SessionNotCreatedException("Interrupted while waiting to create a session on " + hubUrl);
+        }
+
+        try {
+            WebDriverException lastError = null;
+            for (int attempt = 0; attempt <= retries; attempt++) {
+                if (attempt > 0) {
+                    backoff(attempt);
+                }
+                try {
+                    HttpCommandExecutor executor = new HttpCommandExecutor(Collections.emptyMap(), config, this::getSharedClient);
+                    return new RemoteWebDriver(executor, capabilities);
+                } catch (WebDriverException e) {
+                    if (!isTransient(e)) {
+                        throw e;
+                    }
+                    lastError = e;
+                    System.err.printf("Session creation on %s failed (attempt %d of %d): %s%n",
+                            hubUrl, attempt + 1, retries + 1, String.valueOf(e.getMessage()).split("\n")[0]);
+                }
+            }
+            throw new SessionNotCreatedException("Could not create a session on " + hubUrl
+                    + " after " + (retries + 1) + " attempts: " + lastError.getMessage());
+        } finally {
+            pendingSessions.release();
+        }
+    }
+
+    /**
+     * Indicates whether a failed session request is worth retrying: the hub could not be reached or
+     * did not answer in time, or it has no free slot for the session yet. Rejected capabilities or
+     * credentials are not, as every retry would fail the same way.
+     *
+     * @param e The failure.
+     * @return true if the session request should be retried.
+     */
+    static boolean isTransient(WebDriverException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectionFailedException || cause instanceof TimeoutException
+                    || cause instanceof IOException || cause instanceof UncheckedIOException) {
+                return true;
+            }
+        }
+        String message = String.valueOf(e.getMessage()).split("\n")[0].toLowerCase();
+        for (String busy : HUB_BUSY_MESSAGES) {
+            if (message.contains(busy)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the HTTP client shared by all sessions, creating it on first use. Sessions get a view of
+     * the client that ignores close(), as quitting one session must not close the others' connections.
+     *
+     * @param config The client configuration of the hub.
+     * @return The shared HTTP client.
+     */
+    private HttpClient getSharedClient(ClientConfig config) {
+        if (sharedClient == null) {
+            synchronized (this) {
+                if (sharedClient == null) {
+                    HttpClient client = HttpClient.Factory.createDefault().createClient(config);
+                    Runtime.getRuntime().addShutdownHook(new Thread(client::close, "grid-client-shutdown"));
+                    sharedClient = client;
+                }
+            }
+        }
+        HttpClient client = sharedClient;
+        return new HttpClient() {
+            @Override
+            public HttpResponse execute(HttpRequest request) {
+                return client.execute(request);
+            }
+
+            @Override
+            public WebSocket openSocket(HttpRequest request, WebSocket.Listener listener) {
+                return client.openSocket(request, listener);
+            }
+
+            @Override
+            public void close() {
+                // The shared client is closed when the JVM shuts down
+            }
+        };
+    }
+
+    /**
+     * Waits before a retry: the backoff doubles with every attempt, plus up to 50% random jitter
+     * so that parallel workers do not retry in lockstep.
+     *
+     * @param attempt The number of the retry, starting at 1.
+     */
+    private void backoff(int attempt) {
+        long delay = backoffMillis << Math.min(attempt - 1, 10);
+        delay += ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SessionNotCreatedException("Interrupted while waiting to retry session creation on " + hubUrl);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package testBase;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RequestInterception class - network interception layer attached to a driver when the
+ * BrowserFactory creates it. Over the Chrome DevTools Protocol it blocks configurable URL
+ * patterns (analytics, fonts, tracking) inside the browser and counts blocked and allowed
+ * requests, and it seeds consent cookies before the first navigation so the cookie banner is
+ * never shown. Browsers without DevTools get the consent cookies through a same-origin page.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public class RequestInterception {
+
+    /**
+     * URL patterns blocked when -Dnetwork.block is not set. An empty -Dnetwork.block disables blocking.
+     */
+    public static final String DEFAULT_BLOCKED_URLS = "*google-analytics.com*,*googletagmanager.com*,"
+            + "*doubleclick.net*,*hotjar.com*,*facebook.net*,*fonts.googleapis.com*,*fonts.gstatic.com*";
+
+    // Interception of every driver that has one, dropped together with the driver
+    private static final Map<WebDriver, RequestInterception> INTERCEPTIONS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final DevTools devTools;
+    private final List<String> blockedUrls;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong blocked = new AtomicLong();
+    private volatile boolean consentSeeded;
+
+    /**
+     * Constructor for the RequestInterception class.
+     *
+     * @param devTools    The DevTools session of the driver, or null if the browser has none.
+     * @param blockedUrls The URL patterns to block.
+     */
+    private RequestInterception(DevTools devTools, List<String> blockedUrls) {
+        this.devTools = devTools;
+        this.blockedUrls = blockedUrls;
+    }
+
+    /**
+     * Attaches the interception layer to a newly created driver. Blocking and request counting
+     * need the DevTools protocol and are skipped for other browsers.
+     *
+     * @param driver The newly created driver.
+     * @return The interception layer of the driver.
+     */
+    public static RequestInterception attach(WebDriver driver) {
+        if (driver == null) {
+            throw new IllegalArgumentException("Driver cannot be null.");
+        }
+        List<String> blockedUrls = getBlockedUrls();
+        DevTools devTools = null;
+        if (driver instanceof HasDevTools) {
+            try {
+                devTools = ((HasDevTools) driver).getDevTools();
+                devTools.createSessionIfThereIsNotOne();
+            } catch (WebDriverException e) {
+                System.err.println("DevTools are not available, requests will not be blocked: " + e.getMessage());
+                devTools = null;
+            }
+        }
+
+        RequestInterception interception = new RequestInterception(devTools, blockedUrls);
+        if (devTools != null) {
+            interception.enable();
+        }
+        INTERCEPTIONS.put(driver, interception);
+        return interception;
+    }
+
+    /**
+     * Gets the interception layer of a driver.
+     *
+     * @param driver The driver.
+     * @return The interception layer, or null if none was attached.
+     */
+    public static RequestInterception forDriver(WebDriver driver) {
+        return INTERCEPTIONS.get(driver);
+    }
+
+    /**
+     * Seeds the consent cookies configured with -Dconsent.cookies (name=value pairs separated by ';')
+     * for the site of the given URL. Must be called before navigating to the site.
+     *
+     * @param driver The driver the cookies are set for.
+     * @param url    The URL of the site under test.
+     * @return true if consent cookies were seeded.
+     */
+    public boolean seedConsentCookies(WebDriver driver, String url) {
+        Map<String, String> cookies = getConsentCookies();
+        consentSeeded = false;
+        if (cookies.isEmpty()) {
+            return false;
+        }
+        if (devTools != null) {
+            for (Map.Entry<String, String> cookie : cookies.entrySet()) {
+                Map<String, Object> params = new HashMap<>();
+                params.put("url", url);
+                params.put("name", cookie.getKey());
+                params.put("value", cookie.getValue());
+                params.put("path", "/");
+                devTools.send(new Command<>("Network.setCookie", params));
+            }
+            consentSeeded = true;
+            return true;
+        }
+
+        // Without DevTools cookies can only be added on a page of the same origin
+        URI site = URI.create(url);
+        driver.navigate().to(site.getScheme() + "://" + site.getAuthority() + "/favicon.ico");
+        for (Map.Entry<String, String> cookie : cookies.entrySet()) {
+            driver.manage().addCookie(new Cookie(cookie.getKey(), cookie.getValue(), "/"));
+        }
+        consentSeeded = true;
+        return true;
+    }
+
+    /**
+     * Indicates whether consent cookies were seeded, in which case the cookie banner is not shown.
+     *
+     * @return true if consent cookies were seeded.
+     */
+    public boolean isConsentSeeded() {
+        return consentSeeded;
+    }
+
+    /**
+     * Resets the request counters, e.g. at the start of a scenario.
+     */
+    public void resetCounts() {
+        requests.set(0);
+        blocked.set(0);
+    }
+
+    /**
+     * @return The number of requests blocked since the counters were reset.
+     */
+    public long getBlockedCount() {
+        return blocked.get();
+    }
+
+    /**
+     * @return The number of requests allowed since the counters were reset.
+     */
+    public long getAllowedCount() {
+        return Math.max(0, requests.get() - blocked.get());
+    }
+
+    /**
+     * Indicates whether requests are blocked and counted for this driver.
+     *
+     * @return true if the DevTools protocol is available.
+     */
+    public boolean isActive() {
+        return devTools != null;
+    }
+
+    /**
+     * Enables the network domain, sets the blocked URL patterns and starts counting requests.
+     */
+    private void enable() {
+        devTools.send(new Command<>("Network.enable", Collections.emptyMap()));
+        if (!blockedUrls.isEmpty()) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("urls", blockedUrls);
+            devTools.send(new Command<>("Network.setBlockedURLs", params));
+        }
+        devTools.addListener(new Event<>("Network.requestWillBeSent", input -> input.read(Json.MAP_TYPE)),
+                event -> requests.incrementAndGet());
+        devTools.addListener(new Event<Map<String, Object>>("Network.loadingFailed", input -> input.read(Json.MAP_TYPE)),
+                event -> {
+                    if (event.get("blockedReason") != null) {
+                        blocked.incrementAndGet();
+                    }
+                });
+    }
+
+    /**
+     * Reads the URL patterns to block from -Dnetwork.block (comma separated, '*' wildcards).
+     *
+     * @return The URL patterns to block.
+     */
+    private static List<String> getBlockedUrls() {
+        String value = System.getProperty("network.block", DEFAULT_BLOCKED_URLS);
+        List<String> patterns = new ArrayList<>();
+        for (String pattern : value.split(",")) {
+            if (!pattern.trim().isEmpty()) {
+                patterns.add(pattern.trim());
+            }
+        }
+        return patterns;
+    }
+
+    /**
+     * Reads the consent cookies from -Dconsent.cookies, e.g. "CookieConsent=accepted;cookie_policy=1".
+     *
+     * @return The consent cookie values by name.
+     */
+    private static Map<String, String> getConsentCookies() {
+        Map<String, String> cookies = new HashMap<>();
+        String value = System.getProperty("consent.cookies", "");
+        for (String pair : value.split(";")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                cookies.put(pair.substring(0, separator).trim(), pair.substring(separator + 1).trim());
+            }
+        }
+        return cookies;
+    }
+}
@@ -0,0 +1,192 @@
+package testBase;
+
+import enums.Browsers;
+import metrics.TraceRecorder;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * ScenarioExecutor class - This class runs scenario tasks, each with its own {@link DriverContext},
+ * on virtual threads when the JVM has them (Java 21 and later) and on a bounded set of daemon platform
+ * threads otherwise. A task blocks on the driver pool until a browser is free, so thousands of cheap
+ * tasks can share the bounded set of browsers of -Dpool.maxSize.
+ * The context of a task is always ended when the task ends: the driver goes back to the pool when the
+ * task completes or fails, and is discarded when the task was aborted, so no task leaks its browser.
+ * Tasks join the trace of the scenario that submitted them, so their spans show up in its timeline.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public class ScenarioExecutor implements AutoCloseable {
+
+    private final Browsers browser;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final AtomicInteger taskCount = new AtomicInteger();
+
+    /**
+     * A scenario task, run with the driver context it was given bound to its thread.
+     *
+     * @param <T> The result type of the task.
+     */
+    @FunctionalInterface
+    public interface ScenarioTask<T> {
+        T run(DriverContext context) throws Exception;
+    }
+
+    /**
+     * Constructor for the ScenarioExecutor class. Virtual threads are used when available,
+     * unless -DvirtualThreads=false is set.
+     *
+     * @param browser The type of browser the tasks run in.
+     */
+    public ScenarioExecutor(Browsers browser) {
+        if (browser == null) {
+            throw new IllegalArgumentException("Browser type cannot be null.");
+        }
+        this.browser = browser;
+        ExecutorService virtual = "false".equalsIgnoreCase(System.getProperty("virtualThreads"))
+                ? null : newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : newPlatformThreadExecutor();
+    }
+
+    /**
+     * Submits a scenario task. The task leases its driver when it starts, not when it is submitted.
+     *
+     * @param name The name of the scenario, used as the name of its driver context.
+     * @param task The task.
+     * @param <T>  The result type of the task.
+     * @return The future result of the task. Cancelling it with interruption aborts the task.
+     */
+    public <T> Future<T> submit(String name, ScenarioTask<T> task) {
+        return executor.submit(toCallable(name, task));
+    }
+
+    /**
+     * Submits a scenario task with a callback that runs on the task's thread once the task is done,
+     * however it ended: completed, failed, cancelled, or failed before it ran because no driver could
+     * be leased or started. Callers that bound the tasks in flight release their slot in it.
+     *
+     * @param name     The name of the scenario, used as the name of its driver context.
+     * @param task     The task.
+     * @param whenDone Called with the completed future of the task.
+     * @param <T>      The result type of the task.
+     * @return The future result of the task. Cancelling it with interruption aborts the task.
+     */
+    public <T> Future<T> submit(String name, ScenarioTask<T> task, Consumer<Future<T>> whenDone) {
+        FutureTask<T> future = new FutureTask<T>(toCallable(name, task)) {
+            @Override
+            protected void done() {
+                whenDone.accept(this);
+            }
+        };
+        executor.execute(future);
+        return future;
+    }
+
+    /**
+     * Indicates whether the tasks run on virtual threads.
+     *
+     * @return true if the tasks run on virtual threads.
+     */
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Waits for the submitted tasks to finish and stops the executor. If the waiting thread is
+     * interrupted the tasks are aborted, which discards their drivers.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                System.out.println("Waiting for scenario tasks to finish...");
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Turns a scenario task into a callable that opens a driver context, runs the task with the
+     * context bound and then ends the context. The context is opened in the trace of the scenario
+     * submitting the task, which it then carries to the task.
+     *
+     * @param name The name of the scenario.
+     * @param task The task.
+     * @param <T>  The result type of the task.
+     * @return The callable.
+     */
+    private <T> Callable<T> toCallable(String name, ScenarioTask<T> task) {
+        TraceRecorder.ScenarioTrace trace = TraceRecorder.current();
+        return () -> {
+            DriverContext context;
+            try (TraceRecorder.Scope scope = TraceRecorder.bind(trace)) {
+                context = DriverFactory.getInstance().openContext(browser, name + " #" + taskCount.incrementAndGet());
+            }
+            boolean aborted = false;
+            try {
+                return context.wrap(() -> task.run(context)).call();
+            } catch (InterruptedException e) {
+                aborted = true;
+                Thread.currentThread().interrupt();
+                throw e;
+            } finally {
+                // An aborted task may have left its browser in any state, so it is not reused. The
+                // interrupt is cleared while the driver is handed back, or its quit command would fail.
+                boolean interrupted = Thread.interrupted();
+                try {
+                    if (aborted || interrupted) {
+                        context.discard();
+                    } else {
+                        context.close();
+                    }
+                } finally {
+                    if (interrupted) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Creates an executor that starts a virtual thread per task, looked up reflectively so that
+     * the framework still runs on Java versions without virtual threads.
+     *
+     * @return The executor, or null if the JVM has no virtual threads.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates an executor of daemon platform threads, one per browser the pool may start: more
+     * threads would only block on the pool.
+     *
+     * @return The executor.
+     */
+    private static ExecutorService newPlatformThreadExecutor() {
+        int threads = DriverFactory.getInstance().getPool().getMaxSize();
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "scenario-task-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,291 @@
+package testBase;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.InvalidCookieDomainException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * SessionStore class - This class snapshots an authenticated browser session (cookies plus
+ * local and session storage) to disk after a UI login, keyed by user and environment, and
+ * restores it straight into a fresh driver so later scenarios can skip the login form.
+ * Snapshots expire after -Dsession.ttlMinutes and are invalidated when a restored session is rejected.
+ * Author: Rob Thomson
+ * Date: 18/10/2026
+ */
+public class SessionStore {
+
+    // Singleton instance of SessionStore
+    private static final SessionStore instance = new SessionStore();
+
+    private static final String READ_STORAGE_SCRIPT =
+            "function dump(storage) {"
+                    + "  var values = {};"
+                    + "  for (var i = 0; i < storage.length; i++) { values[storage.key(i)] = storage.getItem(storage.key(i)); }"
+                    + "  return values;"
+                    + "}"
+                    + "return {localStorage: dump(window.localStorage), sessionStorage: dump(window.sessionStorage)};";
+    private static final String WRITE_STORAGE_SCRIPT =
+            "var local = arguments[0], session = arguments[1];"
+                    + "for (var key in local) { window.localStorage.setItem(key, local[key]); }"
+                    + "for (var key in session) { window.sessionStorage.setItem(key, session[key]); }";
+    private static final String CLEAR_STORAGE_SCRIPT =
+            "window.localStorage.clear(); window.sessionStorage.clear();";
+
+    private final Json json = new Json();
+    private final Path directory;
+    private final long ttlMillis;
+
+    // One lock per user and environment, so parallel workers log each user in only once. These are
+    // ReentrantLocks rather than monitors, so a virtual thread waiting for a login does not pin its carrier.
+    private final Map<String, Lock> locks = new ConcurrentHashMap<>();
+
+    // Private constructor to prevent instantiation
+    private SessionStore() {
+        this.directory = Paths.get(System.getProperty("session.dir", ".sessions")).toAbsolutePath();
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(Long.getLong("session.ttlMinutes", 30));
+    }
+
+    /**
+     * Provides the global point of access to the Singleton instance of SessionStore.
+     *
+     * @return The Singleton instance of SessionStore.
+     */
+    public static SessionStore getInstance() {
+        return instance;
+    }
+
+    /**
+     * Gets the lock that serializes logins of one user on one environment.
+     *
+     * @param user    The test user alias.
+     * @param baseUrl The base URL of the environment.
+     * @return The lock.
+     */
+    public Lock getLock(String user, String baseUrl) {
+        return locks.computeIfAbsent(getKey(user, baseUrl), key -> new ReentrantLock());
+    }
+
+    /**
+     * Restores a stored session into the driver. The driver must be on a page of the application,
+     * as cookies can only be added for the current domain. After the restore the driver navigates to
+     * the page the session landed on after login, and the session counts as accepted when the
+     * landing check passes there. A rejected session is invalidated and the cookies and storage it
+     * injected are cleared, so the real login starts from a clean browser.
+     *
+     * @param driver        The driver to restore the session into.
+     * @param user          The test user alias.
+     * @param baseUrl       The base URL of the environment.
+     * @param landingCheck  Checks that the driver is logged in after the restore.
+     * @return true if the session was restored and accepted, false if a real login is needed.
+     */
+    public boolean restore(WebDriver driver, String user, String baseUrl, Predicate<WebDriver> landingCheck) {
+        Path file = getFile(user, baseUrl);
+        Map<String, Object> snapshot = read(file);
+        if (snapshot == null) {
+            return false;
+        }
+        long capturedAt = ((Number) snapshot.get("capturedAt")).longValue();
+        if (System.currentTimeMillis() - capturedAt > ttlMillis) {
+            invalidate(user, baseUrl);
+            return false;
+        }
+
+        try {
+            for (Object cookie : (List<?>) snapshot.get("cookies")) {
+                addCookie(driver, toCookie((Map<?, ?>) cookie));
+            }
+            if (driver instanceof JavascriptExecutor) {
+                ((JavascriptExecutor) driver).executeScript(WRITE_STORAGE_SCRIPT,
+                        snapshot.get("localStorage"), snapshot.get("sessionStorage"));
+            }
+            driver.navigate().to((String) snapshot.get("landingUrl"));
+            if (landingCheck.test(driver)) {
+                return true;
+            }
+        } catch (WebDriverException | ClassCastException e) {
+            System.err.println("Error restoring session for " + user + ": " + e.getMessage());
+        }
+
+        System.err.println("Stored session for " + user + " was rejected, falling back to a real login.");
+        invalidate(user, baseUrl);
+        clear(driver);
+        return false;
+    }
+
+    /**
+     * Captures the session of a logged in driver and stores it on disk.
+     *
+     * @param driver  The logged in driver, on the page it landed on after login.
+     * @param user    The test user alias.
+     * @param baseUrl The base URL of the environment.
+     */
+    public void capture(WebDriver driver, String user, String baseUrl) {
+        List<Map<String, Object>> cookies = new ArrayList<>();
+        for (Cookie cookie : driver.manage().getCookies()) {
+            cookies.add(cookie.toJson());
+        }
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put("capturedAt", System.currentTimeMillis());
+        snapshot.put("landingUrl", driver.getCurrentUrl());
+        snapshot.put("cookies", cookies);
+        if (driver instanceof JavascriptExecutor) {
+            Map<?, ?> storage = (Map<?, ?>) ((JavascriptExecutor) driver).executeScript(READ_STORAGE_SCRIPT);
+            snapshot.put("localStorage", storage.get("localStorage"));
+            snapshot.put("sessionStorage", storage.get("sessionStorage"));
+        }
+
+        Path file = getFile(user, baseUrl);
+        try {
+            Files.createDirectories(file.getParent());
+            Path tempFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            Files.write(tempFile, json.toJson(snapshot).getBytes(StandardCharsets.UTF_8));
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            System.err.println("Error storing session for " + user + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes the stored session of a user on an environment.
+     *
+     * @param user    The test user alias.
+     * @param baseUrl The base URL of the environment.
+     */
+    public void invalidate(String user, String baseUrl) {
+        try {
+            Files.deleteIfExists(getFile(user, baseUrl));
+        } catch (IOException e) {
+            System.err.println("Error invalidating session for " + user + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Clears the cookies and the local and session storage of the current origin of a driver.
+     *
+     * @param driver The driver to clear.
+     */
+    private void clear(WebDriver driver) {
+        try {
+            driver.manage().deleteAllCookies();
+            if (driver instanceof JavascriptExecutor) {
+                ((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE_SCRIPT);
+            }
+        } catch (WebDriverException e) {
+            System.err.println("Error clearing the rejected session: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads a stored session.
+     *
+     * @param file The session file.
+     * @return The session snapshot, or null if there is none or it cannot be read.
+     */
+    private Map<String, Object> read(Path file) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            return json.toType(new String(Files.readAllBytes(file), StandardCharsets.UTF_8), Json.MAP_TYPE);
+        } catch (IOException | JsonException e) {
+            System.err.println("Error reading stored session " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Adds a cookie, retrying without its domain when the browser rejects the stored domain.
+     *
+     * @param driver The driver to add the cookie to.
+     * @param cookie The cookie.
+     */
+    private void addCookie(WebDriver driver, Cookie cookie) {
+        try {
+            driver.manage().addCookie(cookie);
+        } catch (InvalidCookieDomainException e) {
+            driver.manage().addCookie(new Cookie(cookie.getName(), cookie.getValue(), cookie.getPath(), cookie.getExpiry()));
+        }
+    }
+
+    /**
+     * Converts a stored cookie back into a Selenium cookie.
+     *
+     * @param stored The stored cookie fields.
+     * @return The cookie.
+     */
+    private Cookie toCookie(Map<?, ?> stored) {
+        Cookie.Builder builder = new Cookie.Builder((String) stored.get("name"), (String) stored.get("value"))
+                .path((String) stored.get("path"))
+                .isSecure(Boolean.TRUE.equals(stored.get("secure")))
+                .isHttpOnly(Boolean.TRUE.equals(stored.get("httpOnly")));
+        if (stored.get("domain") != null) {
+            builder.domain((String) stored.get("domain"));
+        }
+        if (stored.get("expiry") instanceof Number) {
+            builder.expiresOn(new Date(((Number) stored.get("expiry")).longValue() * 1000));
+        }
+        if (stored.get("sameSite") != null) {
+            builder.sameSite((String) stored.get("sameSite"));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Gets the session file of a user on an environment: one directory per environment host.
+     *
+     * @param user    The test user alias.
+     * @param baseUrl The base URL of the environment.
+     * @return The session file.
+     */
+    private Path getFile(String user, String baseUrl) {
+        return directory.resolve(getEnvironment(baseUrl)).resolve(user.replaceAll("[^A-Za-z0-9._-]", "_") + ".json");
+    }
+
+    /**
+     * Builds the key of a user on an environment.
+     *
+     * @param user    The test user alias.
+     * @param baseUrl The base URL of the environment.
+     * @return The key.
+     */
+    private String getKey(String user, String baseUrl) {
+        return getEnvironment(baseUrl) + "/" + user;
+    }
+
+    /**
+     * Gets the environment name of a base URL, i.e. its host and port.
+     *
+     * @param baseUrl The base URL of the environment.
+     * @return The environment name.
+     */
+    private String getEnvironment(String baseUrl) {
+        return URI.create(baseUrl).getAuthority().replace(':', '_');
+    }
+}
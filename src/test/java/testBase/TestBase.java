@@ -3,13 +3,24 @@ package testBase;
 import enums.Browsers;
 import io.cucumber.java.After;
 import io.cucumber.java.Before;
+import helpers.Navigator;
 import io.cucumber.java.Scenario;
+import metrics.Metrics;
+import metrics.TraceRecorder;
+import org.junit.AssumptionViolatedException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.logging.LogType;
 import constants.Constants;
+import pages.LoginPage;
 
 import java.net.MalformedURLException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
-import static constants.Constants.BASE_URL;
 
 /**
  * TestBase class - This class manages the setup and teardown of the WebDriver instance
@@ -20,11 +31,19 @@ import static constants.Constants.BASE_URL;
  */
 public class TestBase {
 
+    // Tag of scenarios that need a browser that runs JavaScript
+    private static final String JAVASCRIPT_TAG = "@javascript";
+
     private final BrowserFactory bf = new BrowserFactory();
 
     /**
-     * This method is executed before each test scenario. It initializes the WebDriver
-     * instance and navigates to the base URL.
+     * This method is executed before each test scenario. It leases a WebDriver instance from
+     * the driver pool (or creates one when pooling is disabled), navigates to the base URL of the
+     * target selected with -Dtarget and waits for the login page to be ready, logging the time it took.
+     * With -Dprewarm a driver that is already on the login page is taken when one is ready.
+     * The time spent waiting for the driver is recorded as the driver_wait metric.
+     * A scenario tagged @javascript is skipped when the browser does not run JavaScript (browserless
+     * HtmlUnit), or runs on -Dhtmlunit.javascriptBrowser instead when that is set.
      *
      * @param scenario The Cucumber Scenario object.
      * @throws MalformedURLException If the URL is malformed.
@@ -32,10 +51,48 @@ public class TestBase {
      */
     @Before
     public void launchApplication(Scenario scenario) throws MalformedURLException, InterruptedException {
-        String browserParameter = getParameter();
-        DriverFactory.getInstance().setDriver(bf.createBrowserInstance(Browsers.valueOf(browserParameter)));
+        TraceRecorder.startScenario(scenario.getName(), getTraceFileName(scenario));
+        Browsers browser = BrowserFactory.getBrowser(getParameter());
+        if (!BrowserFactory.runsJavascript(browser) && scenario.getSourceTagNames().contains(JAVASCRIPT_TAG)) {
+            String javascriptBrowser = System.getProperty("htmlunit.javascriptBrowser", "");
+            if (javascriptBrowser.isEmpty()) {
+                throw new AssumptionViolatedException("Skipped: the scenario needs JavaScript and " + browser + " does not run it.");
+            }
+            browser = BrowserFactory.getBrowser(javascriptBrowser);
+            scenario.log("Needs JavaScript, running on " + browser);
+        }
+        DriverFactory driverFactory = DriverFactory.getInstance();
+        long waitStart = System.nanoTime();
+        String source;
+        try (TraceRecorder.Span span = TraceRecorder.begin("acquireDriver", TraceRecorder.ACTION)) {
+            if (!driverFactory.isPoolingEnabled()) {
+                driverFactory.setDriver(bf.createBrowserInstance(browser));
+                source = "created";
+            } else if (driverFactory.leasePrewarmedDriver(browser)) {
+                source = "prewarmed";
+            } else {
+                driverFactory.leaseDriver(browser);
+                source = "pooled";
+            }
+        }
+        long waitNanos = System.nanoTime() - waitStart;
+        Metrics.record(Metrics.DRIVER_WAIT, source, waitNanos);
+
+        if ("prewarmed".equals(source)) {
+            // Already on the login page, with consent cookies seeded and request counters reset
+            scenario.log(String.format("Pre-warmed login page taken in %d ms", TimeUnit.NANOSECONDS.toMillis(waitNanos)));
+            return;
+        }
         WebDriver driver = DriverFactory.getInstance().getDriver();
-        driver.navigate().to(BASE_URL);
+        String baseUrl = Environment.getBaseUrl();
+        RequestInterception interception = RequestInterception.forDriver(driver);
+        if (interception != null) {
+            interception.resetCounts();
+            interception.seedConsentCookies(driver, baseUrl);
+        }
+        Duration timeToReady = Navigator.navigateTo(driver, baseUrl, LoginPage.readiness());
+        scenario.log(String.format("Driver %s in %d ms, login page ready in %d ms",
+                source, TimeUnit.NANOSECONDS.toMillis(waitNanos), timeToReady.toMillis()));
     }
 
     /**
@@ -54,14 +111,104 @@ public class TestBase {
     }
 
     /**
-     * This method is executed after each test scenario. It closes and quits the WebDriver instance.
+     * This method is executed after each test scenario. When the scenario failed it captures a
+     * screenshot, the page source and the browser log for the report. It then hands the WebDriver
+     * instance back to the driver pool, or closes and quits it when pooling is disabled. The trace of
+     * the scenario is finished by the MetricsPlugin once this hook has been recorded in it.
+     *
+     * @param scenario The Cucumber Scenario object.
      */
     @After
-    public void tearDown() {
-        try {
-            DriverFactory.getInstance().closeDriver();
+    public void tearDown(Scenario scenario) {
+        try (TraceRecorder.Span span = TraceRecorder.begin("releaseDriver", TraceRecorder.ACTION)) {
+            if (DriverContext.current() == null) {
+                // Skipped before a driver was set, e.g. a JavaScript scenario in browserless mode
+                return;
+            }
+            DriverFactory driverFactory = DriverFactory.getInstance();
+            if (scenario.isFailed() && ArtifactWriter.getInstance().isEnabled()) {
+                captureFailureArtifacts(scenario, driverFactory.getDriver());
+            }
+            reportRequestCounts(scenario, driverFactory.getDriver());
+            if (driverFactory.isPoolingEnabled()) {
+                driverFactory.releaseDriver();
+            } else {
+                driverFactory.closeDriver();
+            }
         } catch (IllegalStateException e) {
             System.err.println("Error during teardown: " + e.getMessage());
         }
     }
+
+    /**
+     * Builds a trace file name that is unique per scenario and example row, e.g. "login.feature-12-Invalid_login".
+     *
+     * @param scenario The Cucumber Scenario object.
+     * @return The trace file name, without extension.
+     */
+    private String getTraceFileName(Scenario scenario) {
+        String path = scenario.getUri().getSchemeSpecificPart();
+        String feature = path.substring(path.lastIndexOf('/') + 1);
+        return feature + "-" + scenario.getLine() + "-" + scenario.getName();
+    }
+
+    /**
+     * Takes the raw failure artifacts from the driver and hands them to the background
+     * {@link ArtifactWriter}. Each artifact is attached to the report as a link to the file it is
+     * written to, or logged as dropped when the writer is busy. An artifact the driver cannot
+     * provide (e.g. the browser log of Firefox) is skipped.
+     *
+     * @param scenario The Cucumber Scenario object.
+     * @param driver   The WebDriver instance of the scenario.
+     */
+    private void captureFailureArtifacts(Scenario scenario, WebDriver driver) {
+        long start = System.nanoTime();
+        ArtifactWriter writer = ArtifactWriter.getInstance();
+        String name = getTraceFileName(scenario);
+        try (TraceRecorder.Span span = TraceRecorder.begin("captureFailureArtifacts", TraceRecorder.ACTION)) {
+            if (driver instanceof TakesScreenshot) {
+                attachArtifact(scenario, "Screenshot",
+                        writer.writeScreenshot(name + "-screenshot", ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64)));
+            }
+            attachArtifact(scenario, "Page source", writer.writePageSource(name + "-page", driver.getPageSource()));
+            try {
+                attachArtifact(scenario, "Browser log", writer.writeBrowserLog(name + "-browser", driver.manage().logs().get(LogType.BROWSER)));
+            } catch (WebDriverException e) {
+                // Not every driver exposes its browser log
+            }
+        } catch (WebDriverException e) {
+            scenario.log("Failure artifacts could not be captured: " + String.valueOf(e.getMessage()).split("\n")[0]);
+        }
+        scenario.log(String.format("Failure artifacts captured in %d ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+    }
+
+    /**
+     * Attaches an artifact to the report as a link to its file. Report plugins that write files, such as
+     * {@link reporting.StreamingReportPlugin}, turn the link into one relative to their report directory.
+     *
+     * @param scenario The Cucumber Scenario object.
+     * @param label    The name of the artifact in the report.
+     * @param file     The file the artifact is written to, or null if it was dropped.
+     */
+    private void attachArtifact(Scenario scenario, String label, Path file) {
+        if (file == null) {
+            scenario.log(label + " dropped, the artifact writer is busy.");
+            return;
+        }
+        scenario.attach(file.toAbsolutePath().toUri().toString(), "text/uri-list", label);
+    }
+
+    /**
+     * Logs the number of allowed and blocked network requests of the scenario to the report.
+     *
+     * @param scenario The Cucumber Scenario object.
+     * @param driver   The WebDriver instance of the scenario.
+     */
+    private void reportRequestCounts(Scenario scenario, WebDriver driver) {
+        RequestInterception interception = RequestInterception.forDriver(driver);
+        if (interception != null && interception.isActive()) {
+            scenario.log(String.format("Network requests: %d allowed, %d blocked",
+                    interception.getAllowedCount(), interception.getBlockedCount()));
+        }
+    }
 }
\ No newline at end of file
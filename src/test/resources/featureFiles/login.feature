@@ -14,6 +14,20 @@ Feature: Login
     |joebloggs@testuser.dud |zyefszbb8  |
 
 
+  @javascript
+  Scenario Outline: Valid login in one interaction
+    When I log in with email address "<email address>" and password "<password>"
+    Then I am successfully logged in
+    Examples:
+    |email address          |password   |
+    |joebloggs@testuser.dud |zyefszbb8  |
+
+
+  Scenario: Logged in from a stored session
+    Given I am logged in as "joebloggs"
+    Then I am successfully logged in
+
+
   Scenario Outline: invalid login
     When I accept the cookie policy
     And I enter an email address "<email address>"
@@ -22,4 +36,8 @@ Feature: Login
     Then An error is displayed
     Examples:
       |email address          |password   |
-      |xxxxxx@xxxxxx.com      |xxxxxxxxx  |
\ No newline at end of file
+      |xxxxxx@xxxxxx.com      |xxxxxxxxx  |
+
+  Scenario: Logins from a data file
+    When I try every login in "logins.csv"
+    Then every row has the expected outcome